@@ -0,0 +1,55 @@
+package com.example.task2.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    public static final String REPORT_JOB_EXECUTOR = "reportJobExecutor";
+    public static final String UPLOAD_JOB_EXECUTOR = "uploadJobExecutor";
+    public static final String UPLOAD_PIPELINE_EXECUTOR = "uploadPipelineExecutor";
+
+    /**
+     * Report exports each hold a database connection for their whole run, so only a couple run at once;
+     * the rest wait in a bounded queue and are rejected once it is full.
+     */
+    @Bean(name = REPORT_JOB_EXECUTOR)
+    public TaskExecutor reportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("report-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Uploads spend most of their time waiting on the database, so each one gets its own virtual thread;
+     * how many may run at once is limited by the upload service, not by the executor.
+     */
+    @Bean(name = UPLOAD_JOB_EXECUTOR)
+    public TaskExecutor uploadJobExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upload-job-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Runs the parser and validation stages of pipelined uploads; the number of stages per upload is fixed
+     * by the upload service.
+     */
+    @Bean(name = UPLOAD_PIPELINE_EXECUTOR)
+    public AsyncTaskExecutor uploadPipelineExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upload-pipeline-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
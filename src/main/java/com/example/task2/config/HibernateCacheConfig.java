@@ -0,0 +1,68 @@
+package com.example.task2.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.task2.model.Album;
+import com.example.task2.model.Artist;
+import com.example.task2.model.Genre;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Second-level cache of the reference entities (artists, albums, genres) and of the queries that read them,
+ * kept in Caffeine behind JCache. Every region holds at most {@code reference.cache.max-size} entries and
+ * drops them {@code reference.cache.ttl} after they were written, which also bounds how long a change made
+ * by another instance or by plain SQL can go unnoticed. Hits and misses per region are published by Hibernate
+ * statistics as the {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests}
+ * metrics.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String REFERENCE_QUERY_REGION = "reference-queries";
+
+    /**
+     * Each application context gets its own cache manager, so contexts started side by side (e.g. in tests)
+     * never see each other's entries.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${reference.cache.max-size}") long maxSize,
+            @Value("${reference.cache.ttl}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : List.of(Artist.CACHE_REGION, Album.CACHE_REGION, Genre.CACHE_REGION,
+                REFERENCE_QUERY_REGION, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.NANOSECONDS.convert(ttl)));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        // cached query results are only valid while the timestamps of their tables are known,
+        // so this region is neither bounded nor expired
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+            new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.task2.controller;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.task2.dto.AlbumInfoDto;
 import com.example.task2.dto.RestResponse;
@@ -29,7 +31,11 @@ public class AlbumController {
     private final AlbumService albumService;
 
     @GetMapping("/{id}")
-    public AlbumInfoDto getAlbumById(@PathVariable UUID id){
+    public AlbumInfoDto getAlbumById(@PathVariable UUID id, WebRequest request){
+        Optional<String> version = albumService.findVersion(id);
+        if (version.isPresent() && request.checkNotModified(version.get())) {
+            return null;
+        }
         return albumService.getAlbumDetails(id);
     }
 
@@ -40,6 +46,12 @@ public class AlbumController {
         return new RestResponse(id.toString());
     }
 
+    @PostMapping("/_findOrCreate")
+    public RestResponse findOrCreateAlbum(@Valid @RequestBody SaveAlbumDto saveAlbumDto){
+        UUID id = albumService.findOrCreate(saveAlbumDto);
+        return new RestResponse(id.toString());
+    }
+
     @PutMapping("/{id}")
     public RestResponse updateAlbum(@PathVariable UUID id, @Valid @RequestBody SaveAlbumDto saveAlbumDto){
         albumService.update(id, saveAlbumDto);
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.task2.dto.ArtistInfoDto;
 import com.example.task2.dto.RestResponse;
@@ -30,7 +31,10 @@ public class ArtistController {
     private final ArtistService artistService;
 
     @GetMapping
-    public List<ArtistInfoDto> getAllArtists(){
+    public List<ArtistInfoDto> getAllArtists(WebRequest request){
+        if (request.checkNotModified(artistService.findVersion())) {
+            return null;
+        }
         return artistService.findAll();
     }
 
@@ -41,6 +45,12 @@ public class ArtistController {
         return new RestResponse(id.toString());
     }
 
+    @PostMapping("/_findOrCreate")
+    public RestResponse findOrCreateArtist(@Valid @RequestBody SaveArtistDto saveArtistDto){
+        UUID id = artistService.findOrCreate(saveArtistDto);
+        return new RestResponse(id.toString());
+    }
+
     @PutMapping("/{id}")
     public RestResponse updateArtist(@PathVariable UUID id, @Valid @RequestBody SaveArtistDto saveArtistDto){
         UUID artistId = artistService.update(id, saveArtistDto);
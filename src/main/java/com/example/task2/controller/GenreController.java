@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.task2.dto.GenreInfoDto;
 import com.example.task2.dto.RestResponse;
@@ -30,7 +31,10 @@ public class GenreController {
     private final GenreService genreService;
 
     @GetMapping
-    public List<GenreInfoDto> getAllGenres(){
+    public List<GenreInfoDto> getAllGenres(WebRequest request){
+        if (request.checkNotModified(genreService.findVersion())) {
+            return null;
+        }
         return genreService.findAll();
     }
 
@@ -41,6 +45,12 @@ public class GenreController {
         return new RestResponse(id.toString());
     }
 
+    @PostMapping("/_findOrCreate")
+    public RestResponse findOrCreateGenre(@Valid @RequestBody SaveGenreDto saveGenreDto){
+        UUID id = genreService.findOrCreate(saveGenreDto);
+        return new RestResponse(id.toString());
+    }
+
     @PutMapping("/{id}")
     public RestResponse createGenres(@PathVariable UUID id, @Valid @RequestBody SaveGenreDto saveGenreDto){
         genreService.update(id, saveGenreDto);
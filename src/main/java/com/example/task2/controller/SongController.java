@@ -1,14 +1,21 @@
 package com.example.task2.controller;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -17,17 +24,37 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.task2.dto.BulkItemResultDto;
+import com.example.task2.dto.CursorPageDto;
+import com.example.task2.dto.DeleteResultDto;
 import com.example.task2.dto.FileUploadResultDto;
+import com.example.task2.dto.PatchSongDto;
+import com.example.task2.dto.ReportEngine;
+import com.example.task2.dto.ReportJobDto;
 import com.example.task2.dto.RestResponse;
 import com.example.task2.dto.SaveSongDto;
 import com.example.task2.dto.SongFilter;
 import com.example.task2.dto.SongInfoDto;
+import com.example.task2.dto.SongSearchDto;
+import com.example.task2.dto.UploadJobDto;
+import com.example.task2.dto.UploadMode;
+import com.example.task2.model.ReportJob;
+import com.example.task2.service.ReportJobService;
+import com.example.task2.service.SongBulkService;
+import com.example.task2.service.SongDetailsCache.SerializedSong;
 import com.example.task2.service.SongService;
+import com.example.task2.service.SongUploadService;
+import com.example.task2.service.UploadJobService;
+import com.example.task2.service.UploadRejectionService;
 
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -36,6 +63,11 @@ import lombok.RequiredArgsConstructor;
 public class SongController {
 
     private final SongService songService;
+    private final SongBulkService songBulkService;
+    private final ReportJobService reportJobService;
+    private final SongUploadService songUploadService;
+    private final UploadRejectionService uploadRejectionService;
+    private final UploadJobService uploadJobService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -44,9 +76,26 @@ public class SongController {
         return new RestResponse(id.toString());
     }
 
+    /**
+     * Serves the song from the cache of serialized details when it is there. Otherwise answers
+     * {@code 304 Not Modified} when {@code If-None-Match} holds the current version of the song,
+     * before the song is loaded.
+     */
     @GetMapping("/{id}")
-    public SongInfoDto getSong(@PathVariable UUID id){
-        return songService.getSongDetailedInfo(id);
+    public ResponseEntity<byte[]> getSong(@PathVariable UUID id, WebRequest request){
+        SerializedSong song = songService.findSerializedSong(id);
+        if (song == null) {
+            Optional<String> version = songService.findVersion(id);
+            if (version.isPresent() && request.checkNotModified(version.get())) {
+                return null;
+            }
+            song = songService.getSerializedSong(id);
+        } else if (request.checkNotModified(song.version())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(song.json());
     }
 
     @PutMapping("/{id}")
@@ -55,6 +104,12 @@ public class SongController {
         return new RestResponse(songId.toString());
     }
 
+    @PatchMapping("/{id}")
+    public RestResponse patchSong(@PathVariable UUID id, @Valid @RequestBody PatchSongDto patchSongDto){
+        UUID songId = songService.patchSong(id, patchSongDto);
+        return new RestResponse(songId.toString());
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteSong(@PathVariable UUID id){
@@ -67,21 +122,132 @@ public class SongController {
         return songService.getSongs(pageable, songFilter);
     }
 
+    @PostMapping(value = "/_list", params = "cursor")
+    public CursorPageDto<SongInfoDto> getSongs(@RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort,
+            @RequestBody SongFilter songFilter){
+
+        return songService.getSongs(cursor, size, sort, songFilter);
+    }
+
+    @PostMapping("/_search")
+    public CursorPageDto<SongInfoDto> searchSongs(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @Valid @RequestBody SongSearchDto songSearchDto){
+
+        return songService.searchSongs(cursor, size, songSearchDto);
+    }
+
+    @PostMapping("/_delete")
+    public DeleteResultDto deleteSongs(@RequestBody SongFilter songFilter){
+        return new DeleteResultDto(songService.deleteSongs(songFilter));
+    }
+
+    @PostMapping("/_bulkCreate")
+    public List<BulkItemResultDto> bulkCreateSongs(
+            @RequestBody @NotEmpty @Size(max = SongBulkService.MAX_ITEMS) List<SaveSongDto> saveSongDtos){
+        return songBulkService.createSongs(saveSongDtos);
+    }
+
+    @PostMapping("/_batchGet")
+    public List<BulkItemResultDto> batchGetSongs(
+            @RequestBody @NotEmpty @Size(max = SongBulkService.MAX_ITEMS) List<@NotNull UUID> ids){
+        return songBulkService.getSongs(ids);
+    }
+
+    @PostMapping("/_bulkDelete")
+    public List<BulkItemResultDto> bulkDeleteSongs(
+            @RequestBody @NotEmpty @Size(max = SongBulkService.MAX_ITEMS) List<@NotNull UUID> ids){
+        return songBulkService.deleteSongs(ids);
+    }
+
     @PostMapping(value = "/_report", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public void generateReport(HttpServletResponse httpServletResponse, @RequestBody SongFilter songFilter) throws IOException{
+    public void generateReport(HttpServletResponse httpServletResponse,
+            @RequestParam(defaultValue = "HIBERNATE") ReportEngine engine,
+            @RequestBody SongFilter songFilter) throws IOException{
         try{
-            songService.generateReport(httpServletResponse, songFilter);
+            songService.generateReport(httpServletResponse, songFilter, engine);
         }catch(IOException e){
             httpServletResponse.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to generate report: " + e.getMessage());
         }
         
     }
 
+    @PostMapping("/_report/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ReportJobDto submitReportJob(@RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "HIBERNATE") ReportEngine engine,
+            @RequestBody SongFilter songFilter){
+
+        return reportJobService.submit(songFilter, gzip, engine);
+    }
+
+    @GetMapping("/_report/jobs/{id}")
+    public ReportJobDto getReportJob(@PathVariable UUID id){
+        return reportJobService.getJob(id);
+    }
+
+    @GetMapping("/_report/jobs/{id}/file")
+    public ResponseEntity<Resource> downloadReport(@PathVariable UUID id){
+        ReportJob job = reportJobService.getCompletedJob(id);
+
+        return ResponseEntity.ok()
+            .contentType(job.isGzip() ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, job.isGzip()
+                ? "attachment; filename=\"songs.csv.gz\""
+                : "attachment; filename=\"songs.csv\"")
+            .body(reportJobService.getArtifact(job));
+    }
+
     @PostMapping("/upload")
     @ResponseStatus(HttpStatus.CREATED)
-    public FileUploadResultDto uploadFromFile(@RequestParam("file") MultipartFile multipart){
-        FileUploadResultDto fileUpload = songService.uploadFromFile(multipart);
+    public FileUploadResultDto uploadFromFile(@RequestParam("file") MultipartFile multipart,
+            @RequestParam(defaultValue = "BATCHED") UploadMode mode,
+            @RequestParam(required = false) Integer chunkSize){
+        FileUploadResultDto fileUpload = songUploadService.uploadFromFile(multipart, mode, chunkSize);
         return fileUpload;
     }
 
+    @PostMapping(value = "/upload", params = "rejections=RESPONSE")
+    public void uploadFromFileStreamingRejections(@RequestParam("file") MultipartFile multipart,
+            @RequestParam(defaultValue = "BATCHED") UploadMode mode,
+            @RequestParam(required = false) Integer chunkSize,
+            HttpServletResponse httpServletResponse) throws IOException {
+        songUploadService.uploadFromFile(multipart, mode, chunkSize, httpServletResponse);
+    }
+
+    @PostMapping("/upload/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UploadJobDto submitUploadJob(@RequestParam("file") MultipartFile multipart,
+            @RequestParam(defaultValue = "BATCHED") UploadMode mode,
+            @RequestParam(required = false) Integer chunkSize){
+        return uploadJobService.submit(multipart, mode, chunkSize);
+    }
+
+    @GetMapping("/upload/jobs/{id}")
+    public UploadJobDto getUploadJob(@PathVariable UUID id){
+        return uploadJobService.getJob(id);
+    }
+
+    @PostMapping("/upload/jobs/{id}/_cancel")
+    public UploadJobDto cancelUploadJob(@PathVariable UUID id){
+        return uploadJobService.cancel(id);
+    }
+
+    @PostMapping("/upload/jobs/{id}/_resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UploadJobDto resumeUploadJob(@PathVariable UUID id,
+            @RequestParam(value = "file", required = false) MultipartFile multipart){
+        return uploadJobService.resume(id, multipart);
+    }
+
+    @GetMapping("/upload/rejects/{id}")
+    public ResponseEntity<Resource> downloadRejectedRows(@PathVariable UUID id){
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rejected-songs.csv\"")
+            .body(uploadRejectionService.getRejectionFile(id));
+    }
+
 }
@@ -0,0 +1,27 @@
+package com.example.task2.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request, reported at the position of the item in the request.
+ * {@code status} is the HTTP status the single-item endpoint would have answered with.
+ */
+@Getter
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDto {
+
+    private final int status;
+    private final UUID id;
+    private final String message;
+    private final SongInfoDto song;
+
+    public BulkItemResultDto(int status, UUID id, String message) {
+        this(status, id, message, null);
+    }
+}
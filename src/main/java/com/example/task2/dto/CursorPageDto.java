@@ -0,0 +1,15 @@
+package com.example.task2.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CursorPageDto<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+}
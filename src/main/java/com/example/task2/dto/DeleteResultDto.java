@@ -0,0 +1,11 @@
+package com.example.task2.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class DeleteResultDto {
+
+    private final int deletedRecords;
+}
@@ -1,5 +1,9 @@
 package com.example.task2.dto;
 
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -9,4 +13,11 @@ public class FileUploadResultDto {
 
     private final int successfulRecords;
     private final int failedRecords;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final UUID rejectedRowsFileId;
+
+    public FileUploadResultDto(int successfulRecords, int failedRecords) {
+        this(successfulRecords, failedRecords, null);
+    }
 }
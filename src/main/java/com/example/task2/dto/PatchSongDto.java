@@ -0,0 +1,43 @@
+package com.example.task2.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.example.task2.validation.constraints.NotFutureYear;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Partial update of a song: fields left out (or {@code null}) keep their current value, the others follow
+ * the same rules as in {@link SaveSongDto}. {@code genresId} replaces the genres of the song as a whole.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class PatchSongDto {
+
+    @Size(min = 1, max = 100)
+    @Pattern(regexp = "(?s).*\\S.*", message = "must not be blank")
+    private String title;
+
+    private UUID artistId;
+
+    @Min(1900)
+    @NotFutureYear
+    private Integer releaseYear;
+
+    @Min(1)
+    private Integer duration;
+
+    private UUID albumId;
+
+    @Size(min = 1, message = "must not be empty")
+    private List<UUID> genresId;
+}
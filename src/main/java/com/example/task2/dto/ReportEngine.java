@@ -0,0 +1,10 @@
+package com.example.task2.dto;
+
+public enum ReportEngine {
+
+    /** Streams entities through Hibernate and formats rows in the application. */
+    HIBERNATE,
+
+    /** Lets PostgreSQL render the CSV via {@code COPY ... TO STDOUT} and pipes the bytes through. */
+    COPY
+}
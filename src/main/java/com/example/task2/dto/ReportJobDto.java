@@ -0,0 +1,23 @@
+package com.example.task2.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.task2.model.ReportJobStatus;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ReportJobDto {
+
+    private final UUID id;
+    private final ReportJobStatus status;
+    private final boolean gzip;
+    private final Long sizeBytes;
+    private final String errorMessage;
+    private final Instant createdAt;
+    private final Instant completedAt;
+    private final Instant expiresAt;
+}
@@ -40,4 +40,11 @@ public class SaveSongDto {
 
     @NotEmpty
     private List<UUID> genresId;
+
+    /**
+     * Optional client key of an uploaded record; records with the same key update the same song.
+     * Without it, uploads key records by their content. Ignored outside uploads.
+     */
+    @Size(max = 100)
+    private String recordKey;
 }
@@ -0,0 +1,15 @@
+package com.example.task2.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class SongSearchDto {
+
+    @NotBlank
+    @Size(max = 200)
+    private final String query;
+}
@@ -0,0 +1,46 @@
+package com.example.task2.dto;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Layouts accepted by the song upload, chosen by file extension. Any of them may additionally be gzip-compressed.
+ */
+public enum UploadFormat {
+
+    /** A single JSON array of songs. */
+    JSON(".json"),
+
+    /** One JSON song per line; a broken line never affects the next one. */
+    NDJSON(".ndjson", ".jsonl"),
+
+    /** CSV with the column layout of the song report: artist, album and genres are given by name. */
+    CSV(".csv");
+
+    private final List<String> extensions;
+
+    UploadFormat(String... extensions) {
+        this.extensions = List.of(extensions);
+    }
+
+    /**
+     * @return the format matching the extension of {@code fileName}, ignoring a trailing {@code .gz}; {@code null} if none does
+     */
+    public static UploadFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        for (UploadFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+}
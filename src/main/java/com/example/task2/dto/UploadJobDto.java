@@ -0,0 +1,31 @@
+package com.example.task2.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.task2.model.UploadJobStatus;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UploadJobDto {
+
+    private final UUID id;
+    private final UploadJobStatus status;
+    private final UploadMode mode;
+    private final String fileName;
+    private final long processedRecords;
+    private final long successfulRecords;
+    private final long failedRecords;
+    private final long checkpointRecords;
+    private final double recordsPerSecond;
+    private final boolean cancelRequested;
+    private final UUID rejectedRowsFileId;
+    private final boolean rejectedRowsIncomplete;
+    private final String errorMessage;
+    private final Instant createdAt;
+    private final Instant startedAt;
+    private final Instant completedAt;
+}
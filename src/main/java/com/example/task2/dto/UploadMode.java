@@ -0,0 +1,16 @@
+package com.example.task2.dto;
+
+public enum UploadMode {
+
+    /** Saves every record in its own transaction, one statement at a time. */
+    PER_RECORD,
+
+    /** Saves records in chunks, one transaction per chunk, with inserts sent as JDBC batches. */
+    BATCHED,
+
+    /** Like {@link #BATCHED}, but parsing, validation and writing run concurrently in a pipeline of bounded queues. */
+    PIPELINED,
+
+    /** Streams records into a staging table with COPY and merges them with set-based SQL; writes a rejected-rows file. */
+    COPY
+}
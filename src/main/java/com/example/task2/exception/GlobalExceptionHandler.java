@@ -8,12 +8,18 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.context.request.WebRequest;
 
 import com.example.task2.exception.custom.DuplicateNameException;
 import com.example.task2.exception.custom.FileUploadProcessingException;
+import com.example.task2.exception.custom.InvalidCursorException;
 import com.example.task2.exception.custom.InvalidFileFormatException;
+import com.example.task2.exception.custom.InvalidFilterException;
+import com.example.task2.exception.custom.InvalidSortException;
+import com.example.task2.exception.custom.ReportNotReadyException;
 import com.example.task2.exception.custom.ResourceNotFoundException;
+import com.example.task2.exception.custom.UploadJobStateException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -32,6 +38,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    @ExceptionHandler(ReportNotReadyException.class)
+    public ResponseEntity<ErrorResponse> handleReportNotReadyException(
+            ReportNotReadyException ex, WebRequest request) {
+
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                ex.getMessage()
+        );
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    @ExceptionHandler(UploadJobStateException.class)
+    public ResponseEntity<ErrorResponse> handleUploadJobStateException(
+            UploadJobStateException ex, WebRequest request) {
+
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                ex.getMessage()
+        );
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
@@ -65,9 +99,33 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidationExceptions(
+            HandlerMethodValidationException ex, WebRequest request) {
+
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        String detailedMessage = ex.getParameterValidationResults().stream()
+                .flatMap(result -> result.getResolvableErrors().stream()
+                        .map(error -> result.getMethodParameter().getParameterName()
+                                + (result.getContainerIndex() != null ? "[" + result.getContainerIndex() + "]" : "")
+                                + ": " + error.getDefaultMessage()))
+                .collect(Collectors.joining(", "));
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                detailedMessage
+        );
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
     @ExceptionHandler({
         InvalidFileFormatException.class,
-        FileUploadProcessingException.class
+        FileUploadProcessingException.class,
+        InvalidCursorException.class,
+        InvalidSortException.class,
+        InvalidFilterException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ErrorResponse> handleFileProcessingExceptions(
@@ -0,0 +1,7 @@
+package com.example.task2.exception.custom;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message){
+        super(message);
+    }
+}
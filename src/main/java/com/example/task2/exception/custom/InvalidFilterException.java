@@ -0,0 +1,7 @@
+package com.example.task2.exception.custom;
+
+public class InvalidFilterException extends RuntimeException {
+    public InvalidFilterException(String message){
+        super(message);
+    }
+}
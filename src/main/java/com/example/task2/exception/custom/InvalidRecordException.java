@@ -0,0 +1,23 @@
+package com.example.task2.exception.custom;
+
+import lombok.Getter;
+
+/**
+ * One record of an uploaded file could not be turned into a song. The upload skips it and goes on with the next one.
+ * Thrown once per bad record, so it carries no stack trace.
+ */
+@Getter
+public class InvalidRecordException extends RuntimeException {
+
+    /** Reason code written to rejection reports, e.g. {@code INVALID_RECORD} or {@code MISSING_ARTIST}. */
+    private final String reason;
+
+    /** Values of the record that caused the failure, if any. */
+    private final String ids;
+
+    public InvalidRecordException(String reason, String message, String ids){
+        super(message, null, false, false);
+        this.reason = reason;
+        this.ids = ids;
+    }
+}
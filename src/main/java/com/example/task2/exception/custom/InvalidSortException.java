@@ -0,0 +1,7 @@
+package com.example.task2.exception.custom;
+
+public class InvalidSortException extends RuntimeException {
+    public InvalidSortException(String property){
+        super(String.format("Sorting by '%s' is not supported.", property));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.task2.exception.custom;
+
+public class ReportNotReadyException extends RuntimeException {
+    public ReportNotReadyException(String message){
+        super(message);
+    }
+}
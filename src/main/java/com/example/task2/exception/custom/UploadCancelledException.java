@@ -0,0 +1,7 @@
+package com.example.task2.exception.custom;
+
+public class UploadCancelledException extends RuntimeException {
+    public UploadCancelledException(String message){
+        super(message);
+    }
+}
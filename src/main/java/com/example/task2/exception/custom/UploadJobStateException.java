@@ -0,0 +1,7 @@
+package com.example.task2.exception.custom;
+
+public class UploadJobStateException extends RuntimeException {
+    public UploadJobStateException(String message){
+        super(message);
+    }
+}
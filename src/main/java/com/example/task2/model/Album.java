@@ -3,11 +3,18 @@ package com.example.task2.model;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
+
+import com.example.task2.service.SongDetailsChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -21,6 +28,9 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "albums")
+@EntityListeners(SongDetailsChangeListener.class)
+@BatchSize(size = 100)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Album.CACHE_REGION)
 @Getter
 @Setter
 @Builder
@@ -28,8 +38,11 @@ import lombok.Setter;
 @AllArgsConstructor
 public class Album {
 
+    public static final String CACHE_REGION = "albums";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(name = "name", nullable = false, length = 100)
@@ -3,11 +3,18 @@ package com.example.task2.model;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
+
+import com.example.task2.service.GenreChangeListener;
+import com.example.task2.service.SongDetailsChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
@@ -19,6 +26,8 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "genres")
+@EntityListeners({GenreChangeListener.class, SongDetailsChangeListener.class})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Genre.CACHE_REGION)
 @Getter
 @Setter
 @Builder
@@ -26,8 +35,11 @@ import lombok.Setter;
 @AllArgsConstructor
 public class Genre {
 
+    public static final String CACHE_REGION = "genres";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(name = "name", unique = true, nullable = false, length = 50)
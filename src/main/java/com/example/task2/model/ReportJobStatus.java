@@ -0,0 +1,8 @@
+package com.example.task2.model;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -4,16 +4,21 @@ import java.util.List;
 import java.util.UUID;
 
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UuidGenerator;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,15 +28,37 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "songs")
+@NamedEntityGraph(
+    name = Song.LIST_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode("artist"),
+        @NamedAttributeNode(value = "album", subgraph = "album.artist")
+    },
+    subgraphs = @NamedSubgraph(name = "album.artist", attributeNodes = @NamedAttributeNode("artist"))
+)
+@NamedEntityGraph(
+    name = Song.DETAILS_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode("artist"),
+        @NamedAttributeNode(value = "album", subgraph = "album.artist"),
+        @NamedAttributeNode("genres")
+    },
+    subgraphs = @NamedSubgraph(name = "album.artist", attributeNodes = @NamedAttributeNode("artist"))
+)
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Song {
-    
+
+    /** To-one associations only, so it is safe to combine with LIMIT/OFFSET; genres are batch-loaded. */
+    public static final String LIST_GRAPH = "Song.list";
+    public static final String DETAILS_GRAPH = "Song.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(name = "title", nullable = false, length = 100)
@@ -51,7 +78,15 @@ public class Song {
     @JoinColumn(name = "album_id")
     private Album album;
 
+    /**
+     * Set only for songs created by uploads, see {@link SongImportKeys}; uploading the same record again
+     * updates the song with this key instead of inserting a duplicate.
+     */
+    @Column(name = "import_key", length = 64, unique = true)
+    private String importKey;
+
     @ManyToMany(fetch =  FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
         name = "song_genre",
         joinColumns = @JoinColumn(name = "song_id"), 
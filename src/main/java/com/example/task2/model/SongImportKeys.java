@@ -0,0 +1,56 @@
+package com.example.task2.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.task2.dto.SaveSongDto;
+
+/**
+ * Derives {@link Song#getImportKey()} for an uploaded record: the SHA-256 of the client's record key if it
+ * sent one, otherwise of the record's content (title, artist, album, year, duration and the genre ids
+ * in any order). Either way the same record always maps to the same 64-character key.
+ */
+public final class SongImportKeys {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private SongImportKeys() {
+    }
+
+    public static String of(SaveSongDto saveSongDto) {
+        StringBuilder source = new StringBuilder(160);
+        if (saveSongDto.getRecordKey() != null) {
+            source.append('k').append(SEPARATOR).append(saveSongDto.getRecordKey());
+        } else {
+            source.append('c')
+                .append(SEPARATOR).append(saveSongDto.getTitle())
+                .append(SEPARATOR).append(saveSongDto.getArtistId())
+                .append(SEPARATOR).append(saveSongDto.getAlbumId())
+                .append(SEPARATOR).append(saveSongDto.getReleaseYear())
+                .append(SEPARATOR).append(saveSongDto.getDuration());
+            if (saveSongDto.getGenresId() != null) {
+                List<UUID> genreIds = new ArrayList<>(saveSongDto.getGenresId());
+                genreIds.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+                for (UUID genreId : genreIds) {
+                    source.append(SEPARATOR).append(genreId);
+                }
+            }
+        }
+        byte[] hash = DIGEST.get().digest(source.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.task2.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.example.task2.dto.UploadMode;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "upload_jobs")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private UploadJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mode", nullable = false, length = 20)
+    private UploadMode mode;
+
+    @Column(name = "chunk_size")
+    private Integer chunkSize;
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "processed_records", nullable = false)
+    private long processedRecords;
+
+    @Column(name = "successful_records", nullable = false)
+    private long successfulRecords;
+
+    @Column(name = "failed_records", nullable = false)
+    private long failedRecords;
+
+    /** Records from the start of the file that are stored or rejected for good; a resumed run skips them. */
+    @Column(name = "checkpoint_records", nullable = false)
+    private long checkpointRecords;
+
+    /** Records among the first {@link #checkpointRecords} that were stored; a resumed run counts on from here. */
+    @Column(name = "checkpoint_successful_records", nullable = false)
+    private long checkpointSuccessfulRecords;
+
+    /** Records among the first {@link #checkpointRecords} that were rejected. */
+    @Column(name = "checkpoint_failed_records", nullable = false)
+    private long checkpointFailedRecords;
+
+    /** SHA-256 of the uploaded file, checked when the job is resumed with the file uploaded again. */
+    @Column(name = "file_sha256", length = 64)
+    private String fileSha256;
+
+    @Column(name = "rejected_rows_file_id")
+    private UUID rejectedRowsFileId;
+
+    /** Set once writing the rejected-rows file failed; the file then lacks some of the rejections. */
+    @Column(name = "rejected_rows_incomplete", nullable = false)
+    private boolean rejectedRowsIncomplete;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
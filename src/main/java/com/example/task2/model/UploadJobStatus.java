@@ -0,0 +1,9 @@
+package com.example.task2.model;
+
+public enum UploadJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -1,15 +1,79 @@
 package com.example.task2.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.task2.config.HibernateCacheConfig;
 import com.example.task2.model.Album;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, UUID> {
 
-    boolean existsByNameAndArtistId(String name, UUID artistId);
+    /**
+     * Inserts the album unless the artist already has one with the name, in one statement. The album is only
+     * inserted if the artist exists, so an empty result means either a taken name or a missing artist.
+     *
+     * @return the id of the inserted album, or empty if nothing was inserted
+     */
+    @Query(value = """
+        INSERT INTO albums(id, name, artist_id)
+        SELECT :id, :name, a.id FROM artists a WHERE a.id = :artistId
+        ON CONFLICT (artist_id, name) DO NOTHING
+        RETURNING id
+        """, nativeQuery = true)
+    Optional<UUID> insertIfAbsent(@Param("id") UUID id, @Param("name") String name, @Param("artistId") UUID artistId);
+
+    /**
+     * Inserts the album unless the artist already has one with the name and returns the id stored under the name
+     * either way. Empty if the artist does not exist, or if a matching album was committed after the statement
+     * started, which running it again finds.
+     */
+    @Query(value = """
+        WITH inserted AS (
+            INSERT INTO albums(id, name, artist_id)
+            SELECT :id, :name, a.id FROM artists a WHERE a.id = :artistId
+            ON CONFLICT (artist_id, name) DO NOTHING
+            RETURNING id
+        )
+        SELECT id FROM inserted
+        UNION ALL
+        SELECT id FROM albums WHERE artist_id = :artistId AND name = :name
+        """, nativeQuery = true)
+    Optional<UUID> insertOrFindId(@Param("id") UUID id, @Param("name") String name, @Param("artistId") UUID artistId);
+
+    @Query("SELECT e.id FROM Album e WHERE e.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = HibernateCacheConfig.REFERENCE_QUERY_REGION)
+    })
+    @Query("SELECT e.id FROM Album e WHERE e.name = :name AND e.artist.id = :artistId")
+    Optional<UUID> findIdByNameAndArtistId(@Param("name") String name, @Param("artistId") UUID artistId);
+
+    /** The row versions of the album and of its artist, which change with every write to either. */
+    @Query(value = "SELECT al.row_version || '.' || ar.row_version FROM albums al "
+        + "JOIN artists ar ON ar.id = al.artist_id WHERE al.id = :id", nativeQuery = true)
+    Optional<String> findVersionById(@Param("id") UUID id);
 
+    /**
+     * Deletes the album without loading it; the rows referencing it are handled by the foreign keys.
+     *
+     * @return 1 if the album existed, 0 otherwise
+     */
+    @Modifying
+    @Query("DELETE FROM Album e WHERE e.id = :id")
+    int deleteRowById(@Param("id") UUID id);
 }
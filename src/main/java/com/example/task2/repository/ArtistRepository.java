@@ -1,15 +1,81 @@
 package com.example.task2.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.task2.config.HibernateCacheConfig;
 import com.example.task2.model.Artist;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, UUID>{
 
-    boolean existsByName(String name); 
-    boolean existsByNameAndIdNot(String name, UUID id);
+    /**
+     * Inserts the artist unless the name is taken, in one statement that a concurrent insert of the same name
+     * cannot slip past. Hibernate does not see the insert, so cached queries over artists must be evicted.
+     *
+     * @return the id of the inserted artist, or empty if the name is taken
+     */
+    @Query(value = "INSERT INTO artists(id, name) VALUES (:id, :name) ON CONFLICT (name) DO NOTHING RETURNING id",
+        nativeQuery = true)
+    Optional<UUID> insertIfAbsent(@Param("id") UUID id, @Param("name") String name);
+
+    /**
+     * Inserts the artist unless the name is taken and returns the id stored under the name either way.
+     * Empty if an artist with the name was committed after the statement started, which running it again finds.
+     */
+    @Query(value = """
+        WITH inserted AS (
+            INSERT INTO artists(id, name) VALUES (:id, :name) ON CONFLICT (name) DO NOTHING RETURNING id
+        )
+        SELECT id FROM inserted
+        UNION ALL
+        SELECT id FROM artists WHERE name = :name
+        """, nativeQuery = true)
+    Optional<UUID> insertOrFindId(@Param("id") UUID id, @Param("name") String name);
+
+    @Query("SELECT e.id FROM Artist e WHERE e.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = HibernateCacheConfig.REFERENCE_QUERY_REGION)
+    })
+    @Query("SELECT e.id FROM Artist e WHERE e.name = :name")
+    Optional<UUID> findIdByName(@Param("name") String name);
+
+    @Override
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = HibernateCacheConfig.REFERENCE_QUERY_REGION)
+    })
+    List<Artist> findAll();
+
+    /**
+     * The update and delete counter of the {@code artists} table, incremented by a trigger, followed by the number
+     * of rows, which grows with every insert. Inserts leave the counter alone, so they never wait on each other.
+     */
+    @Query(value = "SELECT (SELECT version FROM reference_versions WHERE name = 'artists') || '.' || count(*) FROM artists",
+        nativeQuery = true)
+    String findVersion();
+
+    /**
+     * Deletes the artist without loading it; the rows referencing it are handled by the foreign keys.
+     *
+     * @return 1 if the artist existed, 0 otherwise
+     */
+    @Modifying
+    @Query("DELETE FROM Artist e WHERE e.id = :id")
+    int deleteRowById(@Param("id") UUID id);
 }
@@ -1,8 +1,14 @@
 package com.example.task2.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.task2.model.Genre;
@@ -10,7 +16,50 @@ import com.example.task2.model.Genre;
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, UUID> {
 
-    boolean existsByName(String name);
+    /**
+     * Inserts the genre unless the name is taken, in one statement. Hibernate does not see the insert,
+     * so the {@code GenreRegistry} must be invalidated.
+     *
+     * @return the id of the inserted genre, or empty if the name is taken
+     */
+    @Query(value = "INSERT INTO genres(id, name) VALUES (:id, :name) ON CONFLICT (name) DO NOTHING RETURNING id",
+        nativeQuery = true)
+    Optional<UUID> insertIfAbsent(@Param("id") UUID id, @Param("name") String name);
 
-    boolean existsByNameAndIdNot(String name, UUID id);
+    /**
+     * Inserts the genre unless the name is taken and returns the id stored under the name either way.
+     * Empty if a genre with the name was committed after the statement started, which running it again finds.
+     */
+    @Query(value = """
+        WITH inserted AS (
+            INSERT INTO genres(id, name) VALUES (:id, :name) ON CONFLICT (name) DO NOTHING RETURNING id
+        )
+        SELECT id FROM inserted
+        UNION ALL
+        SELECT id FROM genres WHERE name = :name
+        """, nativeQuery = true)
+    Optional<UUID> insertOrFindId(@Param("id") UUID id, @Param("name") String name);
+
+    @Query("SELECT e.id FROM Genre e WHERE e.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.id FROM Genre e WHERE e.name = :name")
+    Optional<UUID> findIdByName(@Param("name") String name);
+
+    /**
+     * The update and delete counter of the {@code genres} table, incremented by a trigger, followed by the number
+     * of rows, which grows with every insert. Inserts leave the counter alone, so they never wait on each other.
+     */
+    @Query(value = "SELECT (SELECT version FROM reference_versions WHERE name = 'genres') || '.' || count(*) FROM genres",
+        nativeQuery = true)
+    String findVersion();
+
+    /**
+     * Deletes the genre without loading it; the rows referencing it are handled by the foreign keys.
+     *
+     * @return 1 if the genre existed, 0 otherwise
+     */
+    @Modifying
+    @Query("DELETE FROM Genre e WHERE e.id = :id")
+    int deleteRowById(@Param("id") UUID id);
 }
@@ -0,0 +1,24 @@
+package com.example.task2.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.task2.model.ReportJob;
+import com.example.task2.model.ReportJobStatus;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+    Optional<ReportJob> findFirstByFilterKeyAndGzipAndStatusInAndExpiresAtAfterOrderByCreatedAtDesc(
+        String filterKey, boolean gzip, Collection<ReportJobStatus> statuses, Instant now);
+
+    List<ReportJob> findByStatusIn(Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByExpiresAtBefore(Instant now);
+}
@@ -0,0 +1,14 @@
+package com.example.task2.repository;
+
+import com.example.task2.dto.SongFilter;
+
+public interface SongDeleteRepository {
+
+    /**
+     * Deletes every song matching the filter with one {@code DELETE} statement, without loading any of them.
+     * Their genre links go with them through {@code ON DELETE CASCADE}. Must run inside a transaction.
+     *
+     * @return number of songs deleted
+     */
+    int deleteSongs(SongFilter songFilter);
+}
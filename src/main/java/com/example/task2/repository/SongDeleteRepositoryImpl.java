@@ -0,0 +1,21 @@
+package com.example.task2.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.task2.dto.SongFilter;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SongDeleteRepositoryImpl implements SongDeleteRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int deleteSongs(SongFilter songFilter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = SongProjectionRepositoryImpl.buildWhere(songFilter, params);
+        return jdbcTemplate.update("DELETE FROM songs s" + where, params);
+    }
+}
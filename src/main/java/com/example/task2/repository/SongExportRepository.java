@@ -0,0 +1,16 @@
+package com.example.task2.repository;
+
+import java.io.OutputStream;
+
+import com.example.task2.dto.SongFilter;
+
+public interface SongExportRepository {
+
+    /**
+     * Writes the songs matching the filter as CSV (same columns as the report, with header) by running
+     * {@code COPY ... TO STDOUT} on the server, bypassing JDBC row mapping entirely.
+     *
+     * @return number of data rows written
+     */
+    long copySongsCsv(SongFilter songFilter, OutputStream outputStream);
+}
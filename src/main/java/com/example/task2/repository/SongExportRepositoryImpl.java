@@ -0,0 +1,84 @@
+package com.example.task2.repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+import com.example.task2.dto.SongFilter;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SongExportRepositoryImpl implements SongExportRepository {
+
+    private static final String REPORT_QUERY = """
+            SELECT s.id AS "ID",
+                   s.title AS "Title",
+                   ar.name AS "ArtistName",
+                   al.name AS "Album",
+                   s.release_year AS "ReleasedYear",
+                   s.duration AS "Duration",
+                   (SELECT string_agg(gn.name, ', ' ORDER BY gn.name)
+                    FROM song_genre sg
+                    JOIN genres gn ON gn.id = sg.genre_id
+                    WHERE sg.song_id = s.id) AS "Genres"
+            FROM songs s
+            JOIN artists ar ON ar.id = s.artist_id
+            LEFT JOIN albums al ON al.id = s.album_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long copySongsCsv(SongFilter songFilter, OutputStream outputStream) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String query = REPORT_QUERY + SongProjectionRepositoryImpl.buildWhere(songFilter, params);
+
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            String copySql = "COPY (" + inlineParameters(query, params, connection) + ") TO STDOUT WITH (FORMAT csv, HEADER)";
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copySql, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * COPY does not accept bind parameters, so the filter values are bound to a {@code format('%L')} call instead
+     * and the server renders them as quoted literals into the COPY statement.
+     */
+    private static String inlineParameters(String sql, MapSqlParameterSource params, Connection connection) throws SQLException {
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        String jdbcSql = NamedParameterUtils.substituteNamedParameters(parsedSql, params);
+        Object[] values = NamedParameterUtils.buildValueArray(parsedSql, params, null);
+        if (values.length == 0) {
+            return jdbcSql;
+        }
+
+        String template = jdbcSql.replace("%", "%%").replace("?", "%L");
+        String[] literals = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            literals[i] = String.valueOf(values[i]);
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT format(?, VARIADIC ?::text[])")) {
+            statement.setString(1, template);
+            statement.setArray(2, connection.createArrayOf("text", literals));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.task2.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface SongGenreRepository {
+
+    /**
+     * Makes {@code genreIds} the genres of the song by deleting the links that are no longer wanted and
+     * inserting the missing ones; links that stay are not written at all. Runs on plain JDBC, so the genres
+     * collection of a loaded {@code Song} is left as it was and must not be relied on afterwards.
+     */
+    void replaceGenres(UUID songId, Collection<UUID> genreIds);
+}
@@ -0,0 +1,35 @@
+package com.example.task2.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SongGenreRepositoryImpl implements SongGenreRepository {
+
+    private static final String DELETE_REMOVED = "DELETE FROM song_genre WHERE song_id = ? AND genre_id <> ALL (?)";
+
+    private static final String INSERT_ADDED = """
+            INSERT INTO song_genre(song_id, genre_id)
+            SELECT DISTINCT ?, genre_id FROM unnest(?::uuid[]) AS genre_id
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void replaceGenres(UUID songId, Collection<UUID> genreIds) {
+        Object[] ids = genreIds.toArray();
+        jdbcTemplate.update(DELETE_REMOVED, ps -> {
+            ps.setObject(1, songId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids));
+        });
+        jdbcTemplate.update(INSERT_ADDED, ps -> {
+            ps.setObject(1, songId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids));
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.task2.repository;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+import com.example.task2.dto.SaveSongDto;
+
+public interface SongImportRepository {
+
+    /**
+     * Streams the records into a session-local staging table with {@code COPY ... FROM STDIN}, rejects
+     * records with invalid titles or missing references in one set-based pass and merges the rest into
+     * {@code songs} and {@code song_genre}: a record whose import key already belongs to a song updates that song,
+     * the others are inserted. Must run inside a transaction; the staging tables are dropped on commit.
+     *
+     * @param rejections receives one call per rejected record and reason, ordered by record index
+     * @return number of imported records
+     */
+    long importSongs(Iterator<ImportRecord> records, Consumer<ImportRejection> rejections);
+
+    record ImportRecord(long index, SaveSongDto song) {}
+
+    record ImportRejection(long index, String reason, String ids) {}
+}
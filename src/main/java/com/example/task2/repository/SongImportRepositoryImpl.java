@@ -0,0 +1,285 @@
+package com.example.task2.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.model.SongImportKeys;
+import com.example.task2.model.UuidV7Generator;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SongImportRepositoryImpl implements SongImportRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int REJECTION_FETCH_SIZE = 1000;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE song_import (
+                record_no BIGINT NOT NULL,
+                id UUID NOT NULL,
+                import_key VARCHAR(64) NOT NULL,
+                title TEXT,
+                artist_id UUID,
+                album_id UUID,
+                release_year INT NOT NULL,
+                duration INT NOT NULL,
+                genre_ids UUID[]
+            ) ON COMMIT DROP
+            """;
+
+    private static final String CREATE_REJECTS =
+        "CREATE TEMP TABLE song_import_rejects (record_no BIGINT NOT NULL, reason TEXT NOT NULL, ids TEXT) ON COMMIT DROP";
+
+    private static final String COPY_IN =
+        "COPY song_import (record_no, id, import_key, title, artist_id, album_id, release_year, duration, genre_ids) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Mirrors the constraints of {@link SaveSongDto}, using the reason codes the other upload modes derive from them.
+     */
+    private static final String FIND_REJECTS = """
+            INSERT INTO song_import_rejects (record_no, reason, ids)
+            SELECT i.record_no, r.reason, r.ids
+            FROM song_import i
+            CROSS JOIN LATERAL (
+                SELECT 'INVALID_TITLE', NULL::TEXT
+                WHERE i.title IS NULL OR btrim(i.title) = '' OR length(i.title) > 100
+                UNION ALL
+                SELECT 'INVALID_RELEASE_YEAR', NULL::TEXT
+                WHERE i.release_year < 1900 OR i.release_year > extract(YEAR FROM current_date)
+                UNION ALL
+                SELECT 'INVALID_DURATION', NULL::TEXT
+                WHERE i.duration < 1
+                UNION ALL
+                SELECT 'INVALID_ALBUM_ID', NULL::TEXT
+                WHERE i.album_id IS NULL
+                UNION ALL
+                SELECT 'INVALID_GENRES_ID', NULL::TEXT
+                WHERE i.genre_ids IS NULL OR cardinality(i.genre_ids) = 0
+                UNION ALL
+                SELECT 'MISSING_ARTIST', i.artist_id::TEXT
+                WHERE i.artist_id IS NULL OR NOT EXISTS (SELECT 1 FROM artists a WHERE a.id = i.artist_id)
+                UNION ALL
+                SELECT 'MISSING_ALBUM', i.album_id::TEXT
+                WHERE i.album_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM albums al WHERE al.id = i.album_id)
+                UNION ALL
+                SELECT 'MISSING_GENRE', string_agg(COALESCE(g.id::TEXT, 'null'), ' ')
+                FROM unnest(i.genre_ids) AS g(id)
+                WHERE g.id IS NULL OR NOT EXISTS (SELECT 1 FROM genres gn WHERE gn.id = g.id)
+                HAVING count(*) > 0
+            ) AS r(reason, ids)
+            """;
+
+    /**
+     * Of the records sharing an import key, all but the last one of the file are rejected with the number of the
+     * record that overwrites them, so the accepted count matches the songs written.
+     */
+    private static final String FIND_OVERWRITTEN = """
+            INSERT INTO song_import_rejects (record_no, reason, ids)
+            SELECT k.record_no, 'DUPLICATE_IMPORT_KEY', k.winner::TEXT
+            FROM (
+                SELECT i.record_no,
+                       first_value(i.record_no) OVER (PARTITION BY i.import_key ORDER BY i.record_no DESC) AS winner
+                FROM song_import i
+                WHERE NOT EXISTS (SELECT 1 FROM song_import_rejects r WHERE r.record_no = i.record_no)
+            ) k
+            WHERE k.record_no <> k.winner
+            """;
+
+    /**
+     * One row per import key, the last record of the file winning, with the id of the song that already has that key.
+     */
+    private static final String CREATE_ACCEPTED = """
+            CREATE TEMP TABLE song_import_accepted ON COMMIT DROP AS
+            SELECT DISTINCT ON (i.import_key) i.*, s.id AS existing_id
+            FROM song_import i
+            LEFT JOIN songs s ON s.import_key = i.import_key
+            WHERE NOT EXISTS (SELECT 1 FROM song_import_rejects r WHERE r.record_no = i.record_no)
+            ORDER BY i.import_key, i.record_no DESC
+            """;
+
+    private static final String COUNT_ACCEPTED_RECORDS = """
+            SELECT count(*) FROM song_import i
+            WHERE NOT EXISTS (SELECT 1 FROM song_import_rejects r WHERE r.record_no = i.record_no)
+            """;
+
+    /**
+     * Builds the search document the same way as {@code song_search_document()}, but for all rows at once;
+     * the row triggers are told to keep it via {@code song_search.precomputed}.
+     */
+    private static final String ACCEPTED_WITH_SEARCH_VECTOR = """
+            SELECT a.id, a.existing_id, a.import_key, a.title, a.release_year, a.duration, a.artist_id, a.album_id,
+                   setweight(to_tsvector('simple', coalesce(a.title, '')), 'A')
+                   || setweight(to_tsvector('simple', coalesce(ar.name, '')), 'B')
+                   || setweight(to_tsvector('simple', coalesce(al.name, '')), 'C')
+                   || setweight(to_tsvector('simple', coalesce(gn.names, '')), 'D') AS search_vector
+            FROM song_import_accepted a
+            JOIN artists ar ON ar.id = a.artist_id
+            LEFT JOIN albums al ON al.id = a.album_id
+            LEFT JOIN LATERAL (SELECT string_agg(g.name, ' ' ORDER BY g.name) AS names FROM genres g WHERE g.id = ANY (a.genre_ids)) gn ON true
+            """;
+
+    private static final String UPDATE_EXISTING_SONGS = """
+            UPDATE songs s
+            SET title = a.title, release_year = a.release_year, duration = a.duration,
+                artist_id = a.artist_id, album_id = a.album_id, search_vector = a.search_vector
+            FROM (""" + ACCEPTED_WITH_SEARCH_VECTOR + """
+            ) a
+            WHERE s.id = a.existing_id
+            """;
+
+    private static final String INSERT_NEW_SONGS = """
+            INSERT INTO songs (id, import_key, title, release_year, duration, artist_id, album_id, search_vector)
+            SELECT a.id, a.import_key, a.title, a.release_year, a.duration, a.artist_id, a.album_id, a.search_vector
+            FROM (""" + ACCEPTED_WITH_SEARCH_VECTOR + """
+            ) a
+            WHERE a.existing_id IS NULL
+            """;
+
+    private static final String DELETE_REPLACED_GENRES = """
+            DELETE FROM song_genre sg
+            USING song_import_accepted a
+            WHERE sg.song_id = a.existing_id
+            """;
+
+    private static final String MERGE_SONG_GENRES = """
+            INSERT INTO song_genre (song_id, genre_id)
+            SELECT DISTINCT coalesce(a.existing_id, a.id), g.id
+            FROM song_import_accepted a
+            CROSS JOIN unnest(a.genre_ids) AS g(id)
+            """;
+
+    private static final String SELECT_REJECTS =
+        "SELECT record_no, reason, ids FROM song_import_rejects ORDER BY record_no, reason";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long importSongs(Iterator<ImportRecord> records, Consumer<ImportRejection> rejections) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute(CREATE_REJECTS);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            copyIn(connection.unwrap(PGConnection.class), records);
+            return null;
+        });
+        // temporary tables are never auto-analyzed
+        jdbcTemplate.execute("ANALYZE song_import");
+
+        jdbcTemplate.update(FIND_REJECTS);
+        jdbcTemplate.update(FIND_OVERWRITTEN);
+        jdbcTemplate.execute("ANALYZE song_import_rejects");
+
+        jdbcTemplate.execute(CREATE_ACCEPTED);
+        jdbcTemplate.execute("ANALYZE song_import_accepted");
+
+        jdbcTemplate.queryForObject("SELECT set_config('song_search.precomputed', 'on', true)", String.class);
+        jdbcTemplate.update(UPDATE_EXISTING_SONGS);
+        jdbcTemplate.update(INSERT_NEW_SONGS);
+        jdbcTemplate.update(DELETE_REPLACED_GENRES);
+        jdbcTemplate.update(MERGE_SONG_GENRES);
+        jdbcTemplate.queryForObject("SELECT set_config('song_search.precomputed', 'off', true)", String.class);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_REJECTS);
+            statement.setFetchSize(REJECTION_FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            rejections.accept(new ImportRejection(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)));
+        });
+        return jdbcTemplate.queryForObject(COUNT_ACCEPTED_RECORDS, Long.class);
+    }
+
+    private static void copyIn(PGConnection connection, Iterator<ImportRecord> records) throws SQLException {
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(connection, COPY_IN, COPY_BUFFER_SIZE);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+            StringBuilder line = new StringBuilder(256);
+            while (records.hasNext()) {
+                appendRow(line, records.next());
+                writer.append(line);
+                line.setLength(0);
+            }
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+        }
+    }
+
+    private static void appendRow(StringBuilder line, ImportRecord record) {
+        SaveSongDto song = record.song();
+        line.append(record.index()).append(',');
+        // time-ordered, so the new songs are appended to the primary key index; records replacing a song keep its id
+        line.append(UuidV7Generator.next()).append(',');
+        line.append(SongImportKeys.of(song)).append(',');
+        appendQuoted(line, song.getTitle());
+        line.append(',');
+        appendNullable(line, song.getArtistId());
+        line.append(',');
+        appendNullable(line, song.getAlbumId());
+        line.append(',').append(song.getReleaseYear());
+        line.append(',').append(song.getDuration());
+        line.append(',');
+        appendArray(line, song.getGenresId());
+        line.append('\n');
+    }
+
+    /**
+     * An unquoted empty field is NULL in COPY csv format, a quoted one is an empty string.
+     */
+    private static void appendQuoted(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendNullable(StringBuilder line, UUID value) {
+        if (value != null) {
+            line.append(value);
+        }
+    }
+
+    private static void appendArray(StringBuilder line, List<UUID> values) {
+        if (values == null) {
+            line.append("\"{}\"");
+            return;
+        }
+        line.append("\"{");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(values.get(i) == null ? "NULL" : values.get(i).toString());
+        }
+        line.append("}\"");
+    }
+}
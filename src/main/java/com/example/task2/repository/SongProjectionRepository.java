@@ -0,0 +1,27 @@
+package com.example.task2.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.example.task2.dto.SongFilter;
+import com.example.task2.dto.SongInfoDto;
+import com.example.task2.util.SongSearchCursor;
+
+/**
+ * Read-only song queries that map SQL rows straight into DTOs, skipping entity hydration.
+ */
+public interface SongProjectionRepository {
+
+    Page<SongInfoDto> findSongInfos(SongFilter songFilter, Pageable pageable);
+
+    /**
+     * Full-text search over title, artist, album and genre names, best matches first.
+     * Returns at most {@code limit} hits strictly after the {@code after} position (or from the top when null).
+     */
+    List<RankedSongInfo> searchSongs(String query, SongSearchCursor after, int limit);
+
+    record RankedSongInfo(SongInfoDto song, float rank) {
+    }
+}
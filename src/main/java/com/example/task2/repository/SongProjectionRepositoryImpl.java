@@ -0,0 +1,205 @@
+package com.example.task2.repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.task2.dto.AlbumInfoDto;
+import com.example.task2.dto.ArtistInfoDto;
+import com.example.task2.dto.GenreInfoDto;
+import com.example.task2.dto.SongFilter;
+import com.example.task2.dto.SongInfoDto;
+import com.example.task2.exception.custom.InvalidSortException;
+import com.example.task2.util.SongSearchCursor;
+import com.example.task2.util.SongSpecification;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SongProjectionRepositoryImpl implements SongProjectionRepository {
+
+    private static final String SONG_INFO_COLUMNS = """
+            SELECT s.id, s.title, s.release_year, s.duration,
+                   ar.id AS artist_id, ar.name AS artist_name,
+                   al.id AS album_id, al.name AS album_name,
+                   aa.id AS album_artist_id, aa.name AS album_artist_name,
+                   g.genre_ids, g.genre_names
+            """;
+
+    private static final String SONG_INFO_JOINS = """
+            JOIN artists ar ON ar.id = s.artist_id
+            LEFT JOIN albums al ON al.id = s.album_id
+            LEFT JOIN artists aa ON aa.id = al.artist_id
+            LEFT JOIN LATERAL (
+                SELECT array_agg(gn.id ORDER BY gn.name) AS genre_ids,
+                       array_agg(gn.name ORDER BY gn.name) AS genre_names
+                FROM song_genre sg
+                JOIN genres gn ON gn.id = sg.genre_id
+                WHERE sg.song_id = s.id
+            ) g ON true
+            """;
+
+    private static final String SELECT = SONG_INFO_COLUMNS + "FROM songs s\n" + SONG_INFO_JOINS;
+
+    /**
+     * Ranks matches on the GIN-indexed {@code search_vector} and cuts the page (rank DESC, id ASC) before
+     * joining the details, so only {@code limit} rows are hydrated. The keyset predicate is appended via %s.
+     */
+    private static final String SEARCH = SONG_INFO_COLUMNS + """
+                   , r.rank
+            FROM (
+                SELECT m.id, m.rank
+                FROM (
+                    SELECT s.id, ts_rank(s.search_vector, q.query) AS rank
+                    FROM songs s, websearch_to_tsquery('simple', :query) AS q(query)
+                    WHERE s.search_vector @@ q.query
+                ) m
+                %s
+                ORDER BY m.rank DESC, m.id ASC
+                LIMIT :limit
+            ) r
+            JOIN songs s ON s.id = r.id
+            """ + SONG_INFO_JOINS + """
+            ORDER BY r.rank DESC, s.id ASC
+            """;
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "s.id",
+            "title", "s.title",
+            "releaseYear", "s.release_year",
+            "duration", "s.duration",
+            "artist.name", "ar.name",
+            "album.name", "al.name");
+
+    private static final RowMapper<SongInfoDto> SONG_INFO_MAPPER = (rs, rowNum) -> {
+        UUID albumId = rs.getObject("album_id", UUID.class);
+        AlbumInfoDto album = albumId == null ? null : new AlbumInfoDto(
+                albumId,
+                rs.getString("album_name"),
+                new ArtistInfoDto(rs.getObject("album_artist_id", UUID.class), rs.getString("album_artist_name")));
+
+        return SongInfoDto.builder()
+                .id(rs.getObject("id", UUID.class))
+                .title(rs.getString("title"))
+                .artistInfo(new ArtistInfoDto(rs.getObject("artist_id", UUID.class), rs.getString("artist_name")))
+                .releaseYear(rs.getInt("release_year"))
+                .duration(rs.getInt("duration"))
+                .album(album)
+                .genres(mapGenres(rs))
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<SongInfoDto> findSongInfos(SongFilter songFilter, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = selectSql(songFilter, pageable, params);
+
+        List<SongInfoDto> content = jdbcTemplate.query(sql, params, SONG_INFO_MAPPER);
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(countSql(songFilter, params), params, Long.class));
+    }
+
+    @Override
+    public List<RankedSongInfo> searchSongs(String query, SongSearchCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", limit);
+
+        String keyset = "";
+        if (after != null) {
+            keyset = "WHERE m.rank < :afterRank OR (m.rank = :afterRank AND m.id > :afterId)";
+            params.addValue("afterRank", after.getRank());
+            params.addValue("afterId", after.getId());
+        }
+
+        return jdbcTemplate.query(SEARCH.formatted(keyset), params,
+                (rs, rowNum) -> new RankedSongInfo(SONG_INFO_MAPPER.mapRow(rs, rowNum), rs.getFloat("rank")));
+    }
+
+    static String selectSql(SongFilter songFilter, Pageable pageable, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder(SELECT)
+                .append(buildWhere(songFilter, params))
+                .append(buildOrderBy(pageable.getSort()));
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            params.addValue("limit", pageable.getPageSize());
+            params.addValue("offset", pageable.getOffset());
+        }
+        return sql.toString();
+    }
+
+    static String countSql(SongFilter songFilter, MapSqlParameterSource params) {
+        return "SELECT count(*) FROM songs s" + buildWhere(songFilter, params);
+    }
+
+    /**
+     * Mirrors {@code SongSpecification.matches}. Name filters resolve the matching artist/album ids first
+     * ({@code = ANY(ARRAY(...))} is evaluated once as an init plan through the trigram indexes), so the plan
+     * cannot degrade into walking the whole songs table when the statement is cached with a generic plan.
+     */
+    static String buildWhere(SongFilter songFilter, MapSqlParameterSource params) {
+        List<String> predicates = new ArrayList<>();
+
+        if (songFilter.getAlbumName() != null && !songFilter.getAlbumName().trim().isEmpty()) {
+            predicates.add("s.album_id = ANY (ARRAY(SELECT id FROM albums WHERE lower(name) LIKE :albumPattern))");
+            params.addValue("albumPattern", SongSpecification.containsPattern(songFilter.getAlbumName()));
+        }
+        if (songFilter.getReleasedYear() != null) {
+            predicates.add("s.release_year = :releasedYear");
+            params.addValue("releasedYear", songFilter.getReleasedYear());
+        }
+        if (songFilter.getArtistName() != null && !songFilter.getArtistName().trim().isEmpty()) {
+            predicates.add("s.artist_id = ANY (ARRAY(SELECT id FROM artists WHERE lower(name) LIKE :artistPattern))");
+            params.addValue("artistPattern", SongSpecification.containsPattern(songFilter.getArtistName()));
+        }
+
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private static String buildOrderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidSortException(order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        if (sort.getOrderFor("id") == null) {
+            orderBy.add("s.id ASC");
+        }
+        return orderBy.toString();
+    }
+
+    private static List<GenreInfoDto> mapGenres(ResultSet rs) throws SQLException {
+        Array ids = rs.getArray("genre_ids");
+        Array names = rs.getArray("genre_names");
+        if (ids == null || names == null) {
+            return List.of();
+        }
+
+        UUID[] genreIds = (UUID[]) ids.getArray();
+        String[] genreNames = (String[]) names.getArray();
+        List<GenreInfoDto> genres = new ArrayList<>(genreIds.length);
+        for (int i = 0; i < genreIds.length; i++) {
+            genres.add(new GenreInfoDto(genreIds[i], genreNames[i]));
+        }
+        return genres;
+    }
+}
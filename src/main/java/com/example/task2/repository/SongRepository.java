@@ -1,14 +1,61 @@
 package com.example.task2.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.task2.model.Song;
 
 @Repository
-public interface SongRepository extends JpaRepository<Song, UUID>, JpaSpecificationExecutor<Song> {
+public interface SongRepository extends JpaRepository<Song, UUID>, JpaSpecificationExecutor<Song>,
+        SongProjectionRepository, SongStreamRepository, SongExportRepository, SongImportRepository,
+        SongDeleteRepository, SongGenreRepository {
 
+    @Override
+    @EntityGraph(Song.LIST_GRAPH)
+    List<Song> findAll(Specification<Song> spec);
+
+    @EntityGraph(Song.DETAILS_GRAPH)
+    Optional<Song> findWithDetailsById(UUID id);
+
+    @EntityGraph(Song.DETAILS_GRAPH)
+    List<Song> findWithDetailsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Deletes the songs in one statement; their genre links go with them through {@code ON DELETE CASCADE}.
+     *
+     * @return the ids of the songs that existed
+     */
+    @Query(value = "DELETE FROM songs WHERE id IN (:ids) RETURNING id", nativeQuery = true)
+    List<UUID> deleteByIdInReturningId(@Param("ids") Collection<UUID> ids);
+
+    List<Song> findByImportKeyIn(Collection<String> importKeys);
+
+    /**
+     * The row version of the song followed by a hash of the row versions of the artist, album and genres it
+     * shows, which together change whenever the song details could have changed. Writes to other artists,
+     * albums or genres leave it as it is.
+     */
+    @Query(value = """
+            SELECT s.row_version || '.' || md5(concat_ws('.', ar.row_version, al.row_version, aa.row_version,
+                                                         (SELECT string_agg(g.id || ':' || g.row_version, '.' ORDER BY g.id)
+                                                          FROM song_genre sg
+                                                          JOIN genres g ON g.id = sg.genre_id
+                                                          WHERE sg.song_id = s.id)))
+            FROM songs s
+            LEFT JOIN artists ar ON ar.id = s.artist_id
+            LEFT JOIN albums al ON al.id = s.album_id
+            LEFT JOIN artists aa ON aa.id = al.artist_id
+            WHERE s.id = :id
+            """, nativeQuery = true)
+    Optional<String> findVersionById(@Param("id") UUID id);
 }
@@ -0,0 +1,17 @@
+package com.example.task2.repository;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.task2.model.Song;
+
+public interface SongStreamRepository {
+
+    /**
+     * Forward-only, read-only stream over the matching songs with {@link Song#LIST_GRAPH} applied.
+     * Rows are pulled from a server-side cursor {@code fetchSize} at a time, so the caller must be inside
+     * a transaction and should clear the persistence context periodically.
+     */
+    Stream<Song> streamAll(Specification<Song> spec, int fetchSize);
+}
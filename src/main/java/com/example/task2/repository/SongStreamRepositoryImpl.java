@@ -0,0 +1,39 @@
+package com.example.task2.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.task2.model.Song;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SongStreamRepositoryImpl implements SongStreamRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<Song> streamAll(Specification<Song> spec, int fetchSize) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Song> query = builder.createQuery(Song.class);
+        Root<Song> root = query.from(Song.class);
+
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .setHint(AvailableHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Song.LIST_GRAPH))
+                .getResultStream();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.task2.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.task2.model.UploadJob;
+import com.example.task2.model.UploadJobStatus;
+
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface UploadJobRepository extends JpaRepository<UploadJob, UUID> {
+
+    List<UploadJob> findByStatusIn(Collection<UploadJobStatus> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadJob j SET j.checkpointRecords = :checkpoint, "
+        + "j.checkpointSuccessfulRecords = :checkpointSucceeded, j.checkpointFailedRecords = :checkpointFailed, "
+        + "j.processedRecords = :processed, j.successfulRecords = :succeeded, j.failedRecords = :failed WHERE j.id = :id")
+    void saveCheckpoint(UUID id, long checkpoint, long checkpointSucceeded, long checkpointFailed,
+        long processed, long succeeded, long failed);
+}
@@ -1,7 +1,10 @@
 package com.example.task2.service;
 
+import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.example.task2.dto.AlbumInfoDto;
@@ -10,6 +13,7 @@ import com.example.task2.dto.SaveAlbumDto;
 import com.example.task2.exception.custom.DuplicateNameException;
 import com.example.task2.exception.custom.ResourceNotFoundException;
 import com.example.task2.model.Album;
+import com.example.task2.model.UuidV7Generator;
 import com.example.task2.repository.AlbumRepository;
 
 import jakarta.transaction.Transactional;
@@ -19,8 +23,12 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AlbumService {
 
+    private static final String UNIQUE_NAME_CONSTRAINT = "uq_albums_artist_name";
+
     private final AlbumRepository albumRepository;
     private final ArtistService artistService;
+    private final SongDetailsCache songDetailsCache;
+    private final ReferenceQueryCache referenceQueryCache;
 
     public Album findById(UUID albumId) {
         return albumRepository.findById(albumId)
@@ -32,33 +40,63 @@ public class AlbumService {
         return convertToDetails(album);
     }
 
+    /** Changes with every write to the album or its artist; empty if there is no such album. */
+    public Optional<String> findVersion(UUID id) {
+        return albumRepository.findVersionById(id);
+    }
+
+    /** One statement; only when nothing was inserted is the artist looked up to tell a missing one from a taken name. */
     @Transactional
     public UUID save(SaveAlbumDto saveAlbumDto) {
-        if(albumRepository.existsByNameAndArtistId(saveAlbumDto.getName(), saveAlbumDto.getArtistId())) {
-            throw new DuplicateNameException("Album", saveAlbumDto.getName());
-        }
-        Album album = Album.builder()
-        .name(saveAlbumDto.getName())
-        .artist(artistService.findById(saveAlbumDto.getArtistId())) 
-        .build();
+        UUID id = albumRepository.insertIfAbsent(UuidV7Generator.next(), saveAlbumDto.getName(), saveAlbumDto.getArtistId())
+            .orElseThrow(() -> notInserted(saveAlbumDto));
+        referenceQueryCache.evictAfterCommit();
+        return id;
+    }
 
-        return albumRepository.save(album).getId(); 
+    /** Returns the id of the artist's album with the name, creating it first if there is none. */
+    @Transactional
+    public UUID findOrCreate(SaveAlbumDto saveAlbumDto) {
+        UUID newId = UuidV7Generator.next();
+        String name = saveAlbumDto.getName();
+        UUID artistId = saveAlbumDto.getArtistId();
+        UUID id = albumRepository.insertOrFindId(newId, name, artistId)
+            .or(() -> albumRepository.insertOrFindId(newId, name, artistId))
+            .orElseThrow(() -> notInserted(saveAlbumDto));
+        if (id.equals(newId)) {
+            referenceQueryCache.evictAfterCommit();
+        }
+        return id;
     }
 
+    /** A taken name, also one taken by a racing write, is reported by the unique constraint; no check beforehand. */
     @Transactional
     public UUID update(UUID id, SaveAlbumDto saveAlbumDto) {
-        if(albumRepository.existsByNameAndArtistId(saveAlbumDto.getName(), saveAlbumDto.getArtistId())) {
-            throw new DuplicateNameException("Album", saveAlbumDto.getName());
-        }
         Album albumToUpdate = findById(id);
         albumToUpdate.setName(saveAlbumDto.getName());
         albumToUpdate.setArtist(artistService.findById(saveAlbumDto.getArtistId()));
-        return albumRepository.save(albumToUpdate).getId();
+        try {
+            return albumRepository.saveAndFlush(albumToUpdate).getId();
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_NAME_CONSTRAINT.equals(violation.getConstraintName())) {
+                throw new DuplicateNameException("Album", saveAlbumDto.getName());
+            }
+            throw ex;
+        }
     }
 
+    @Transactional
     public void delete(UUID id) {
-        Album album = findById(id);
-        albumRepository.delete(album);
+        if (albumRepository.deleteRowById(id) == 0) {
+            throw new ResourceNotFoundException("Album", id);
+        }
+        songDetailsCache.evictReferencing(id);
+    }
+
+    private RuntimeException notInserted(SaveAlbumDto saveAlbumDto) {
+        artistService.findById(saveAlbumDto.getArtistId());
+        return new DuplicateNameException("Album", saveAlbumDto.getName());
     }
 
     public AlbumInfoDto convertToDetails(Album album) {
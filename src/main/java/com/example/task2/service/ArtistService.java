@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.example.task2.dto.ArtistInfoDto;
@@ -11,6 +13,7 @@ import com.example.task2.dto.SaveArtistDto;
 import com.example.task2.exception.custom.DuplicateNameException;
 import com.example.task2.exception.custom.ResourceNotFoundException;
 import com.example.task2.model.Artist;
+import com.example.task2.model.UuidV7Generator;
 import com.example.task2.repository.ArtistRepository;
 
 import jakarta.transaction.Transactional;
@@ -20,22 +23,41 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ArtistService {
 
+    private static final String UNIQUE_NAME_CONSTRAINT = "uq_artists_name";
+
     private final ArtistRepository artistRepository;
+    private final SongDetailsCache songDetailsCache;
+    private final ReferenceQueryCache referenceQueryCache;
 
     public Artist findById(UUID id){
         return artistRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Artist", id));
     }
 
+    /** Inserts with {@code ON CONFLICT DO NOTHING}, so a taken name costs no extra query and no race. */
     @Transactional
     public UUID save(SaveArtistDto saveArtistDto){
+        UUID id = artistRepository.insertIfAbsent(UuidV7Generator.next(), saveArtistDto.getName())
+            .orElseThrow(() -> new DuplicateNameException("Artist", saveArtistDto.getName()));
+        referenceQueryCache.evictAfterCommit();
+        return id;
+    }
 
-        if (artistRepository.existsByName(saveArtistDto.getName())) {
-            throw new DuplicateNameException("Artist", saveArtistDto.getName());
+    /**
+     * Returns the id of the artist with the name, creating it first if there is none. One statement unless
+     * a concurrent request created the same artist while it ran.
+     */
+    @Transactional
+    public UUID findOrCreate(SaveArtistDto saveArtistDto){
+        UUID newId = UuidV7Generator.next();
+        String name = saveArtistDto.getName();
+        UUID id = artistRepository.insertOrFindId(newId, name)
+            .or(() -> artistRepository.insertOrFindId(newId, name))
+            .orElseThrow(() -> new DuplicateNameException("Artist", name));
+        if (id.equals(newId)) {
+            referenceQueryCache.evictAfterCommit();
         }
-
-        Artist artist = convertToEntity(saveArtistDto);
-        return artistRepository.save(artist).getId();
+        return id;
     }
 
     public List<ArtistInfoDto> findAll(){
@@ -43,28 +65,34 @@ public class ArtistService {
         .map(a -> convertToDetails(a)).collect(Collectors.toList());
     }
 
+    public String findVersion(){
+        return artistRepository.findVersion();
+    }
+
+    /** A taken name, also one taken by a racing write, is reported by the unique constraint; no check beforehand. */
     @Transactional
     public UUID update(UUID id, SaveArtistDto saveArtistDto){
-        if (artistRepository.existsByNameAndIdNot(saveArtistDto.getName(), id)) {
-            throw new DuplicateNameException("Artist", saveArtistDto.getName());
-        }
         Artist artistToUpdate = findById(id);
         updateFromDto(artistToUpdate, saveArtistDto);
-        return artistRepository.save(artistToUpdate).getId();
-
+        try {
+            return artistRepository.saveAndFlush(artistToUpdate).getId();
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_NAME_CONSTRAINT.equals(violation.getConstraintName())) {
+                throw new DuplicateNameException("Artist", saveArtistDto.getName());
+            }
+            throw ex;
+        }
     }
 
+    @Transactional
     public void delete(UUID id){
-        Artist artist = findById(id);
-        artistRepository.delete(artist);
-    }
-
-    private Artist convertToEntity(SaveArtistDto saveArtistDto){
-        Artist artist = Artist.builder()
-        .name(saveArtistDto.getName())
-        .build();
-
-        return artist;
+        if (artistRepository.deleteRowById(id) == 0) {
+            throw new ResourceNotFoundException("Artist", id);
+        }
+        // ON DELETE CASCADE took the albums of the artist as well, which Hibernate does not know about
+        referenceQueryCache.evictWithAlbumsAfterCommit();
+        songDetailsCache.evictReferencing(id);
     }
 
     private ArtistInfoDto convertToDetails(Artist artist){
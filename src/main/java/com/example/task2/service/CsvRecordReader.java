@@ -0,0 +1,207 @@
+package com.example.task2.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.exception.custom.InvalidFileFormatException;
+import com.example.task2.exception.custom.InvalidRecordException;
+
+/**
+ * Reads songs from CSV in the layout of the song report
+ * ({@code ID,Title,ArtistName,Album,ReleasedYear,Duration,Genres}), so an exported report can be uploaded again.
+ * Columns are matched by header name and may come in any order; {@code ID} becomes the record key, so
+ * uploading the same report twice updates the songs of the first upload. Artist, album and
+ * genres are given by name and resolved to ids while reading. Quoted fields may contain commas, quotes
+ * and line breaks; a record with a wrong column count or a bad number is rejected on its own.
+ */
+final class CsvRecordReader implements SongRecordReader {
+
+    private static final String RECORD_KEY = "id";
+    private static final String TITLE = "title";
+    private static final String ARTIST = "artistname";
+    private static final String ALBUM = "album";
+    private static final String RELEASE_YEAR = "releasedyear";
+    private static final String DURATION = "duration";
+    private static final String GENRES = "genres";
+
+    private final BufferedReader reader;
+    private final SongNameResolver names;
+    private final StringBuilder field = new StringBuilder(128);
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int columnCount;
+    private List<String> record;
+    private boolean unterminated;
+
+    CsvRecordReader(BufferedReader reader, SongNameResolver names) {
+        this.reader = reader;
+        this.names = names;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (columnCount == 0) {
+            readHeader();
+        }
+        while (record == null) {
+            List<String> read = readRecord();
+            if (read == null) {
+                return false;
+            }
+            if (read.size() > 1 || !read.get(0).isBlank()) {
+                record = read;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public SaveSongDto next() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more records.");
+        }
+        List<String> current = record;
+        record = null;
+
+        if (unterminated) {
+            throw new InvalidRecordException("INVALID_RECORD", "Parsing error: unterminated quoted field.", null);
+        }
+        if (current.size() != columnCount) {
+            throw new InvalidRecordException("INVALID_RECORD",
+                "Parsing error: expected " + columnCount + " columns but found " + current.size() + ".", null);
+        }
+
+        String artistName = value(current, ARTIST);
+        UUID artistId = names.findArtistId(artistName)
+            .orElseThrow(() -> new InvalidRecordException("MISSING_ARTIST", "Artist not found: " + artistName, artistName));
+
+        String albumName = value(current, ALBUM);
+        UUID albumId = null;
+        if (albumName != null && !albumName.isEmpty()) {
+            albumId = names.findAlbumId(albumName, artistId)
+                .orElseThrow(() -> new InvalidRecordException("MISSING_ALBUM", "Album not found: " + albumName, albumName));
+        }
+
+        List<UUID> genreIds = new ArrayList<>(2);
+        String genreNames = value(current, GENRES);
+        if (genreNames != null && !genreNames.isBlank()) {
+            for (String genreName : genreNames.split(",")) {
+                String trimmed = genreName.trim();
+                genreIds.add(names.findGenreId(trimmed)
+                    .orElseThrow(() -> new InvalidRecordException("MISSING_GENRE", "Genre not found: " + trimmed, trimmed)));
+            }
+        }
+
+        return SaveSongDto.builder()
+            .title(value(current, TITLE))
+            .artistId(artistId)
+            .albumId(albumId)
+            .releaseYear(number(current, RELEASE_YEAR))
+            .duration(number(current, DURATION))
+            .genresId(genreIds)
+            .recordKey(emptyToNull(value(current, RECORD_KEY)))
+            .build();
+    }
+
+    @Override
+    public void skip() throws IOException {
+        if (hasNext()) {
+            record = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidFileFormatException("CSV file has no header.");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of(TITLE, ARTIST, RELEASE_YEAR, DURATION)) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidFileFormatException("CSV header is missing the column: " + required);
+            }
+        }
+        columnCount = header.size();
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        return index == null ? null : record.get(index);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private int number(List<String> record, String column) {
+        String value = value(record, column);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidRecordException("INVALID_RECORD", "Parsing error: " + column + " is not a number: " + value, null);
+        }
+    }
+
+    /**
+     * Reads one logical CSV record, which spans several lines when a quoted field contains line breaks.
+     *
+     * @return the fields of the record, or {@code null} at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>(Math.max(columnCount, 8));
+        field.setLength(0);
+        unterminated = false;
+        boolean quoted = false;
+        boolean read = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                int following = reader.read();
+                if (following == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (following != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        unterminated = quoted;
+        fields.add(field.toString());
+        return fields;
+    }
+}
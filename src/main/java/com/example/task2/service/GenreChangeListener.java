@@ -0,0 +1,30 @@
+package com.example.task2.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.task2.model.Genre;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Refreshes the {@link GenreRegistry} after any genre is written through JPA, whether by {@link GenreService}
+ * or directly through the repository. Created by Hibernate through the Spring bean container; the registry is
+ * looked up lazily because it depends on the persistence unit this listener is part of.
+ */
+public class GenreChangeListener {
+
+    private final ObjectProvider<GenreRegistry> genreRegistry;
+
+    public GenreChangeListener(ObjectProvider<GenreRegistry> genreRegistry) {
+        this.genreRegistry = genreRegistry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void genreChanged(Genre genre) {
+        genreRegistry.ifAvailable(GenreRegistry::invalidate);
+    }
+}
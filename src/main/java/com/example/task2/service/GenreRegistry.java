@@ -0,0 +1,199 @@
+package com.example.task2.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task2.dto.GenreInfoDto;
+import com.example.task2.model.Genre;
+import com.example.task2.repository.GenreRepository;
+
+/**
+ * All genres, held in memory. The table is small and rarely written, so it is loaded whole into an immutable
+ * snapshot that readers use without locks or queries; a reload swaps in a new snapshot.
+ * <p>
+ * The version of the table is the {@code genres} counter of {@code reference_versions}, which a trigger increments on
+ * every update and delete, followed by the number of genres, which grows with every insert.
+ * Genres written through JPA in this instance are reloaded as soon as the transaction commits, see
+ * {@link GenreChangeListener}. Changes made elsewhere (another instance, plain SQL) are picked up every
+ * {@code genre.registry.refresh-interval}, or earlier when a lookup misses, so a genre created moments ago is
+ * not reported as missing. A miss checks the version at most once per {@code genre.registry.miss-refresh-interval},
+ * so a file full of unknown genre ids does not cost a query per record. A genre deleted elsewhere may still be
+ * served until the next refresh.
+ */
+@Service
+public class GenreRegistry {
+
+    private final GenreRepository genreRepository;
+    private final TransactionTemplate loadTransaction;
+    private final long missRefreshIntervalNanos;
+    private final AtomicLong lastMissRefresh;
+
+    private volatile Snapshot snapshot;
+
+    public GenreRegistry(GenreRepository genreRepository, PlatformTransactionManager transactionManager,
+            @Value("${genre.registry.miss-refresh-interval}") Duration missRefreshInterval) {
+        this.genreRepository = genreRepository;
+        this.missRefreshIntervalNanos = missRefreshInterval.toNanos();
+        this.lastMissRefresh = new AtomicLong(System.nanoTime() - missRefreshIntervalNanos);
+        // own connection, so a lookup also works while an upload keeps its connection busy with COPY;
+        // repeatable read, so the version and the rows come from the same moment
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public List<GenreInfoDto> findAll() {
+        return snapshot().all();
+    }
+
+    /** The version of the {@code genres} table the genres returned by {@link #findAll()} were loaded at. */
+    public String getVersion() {
+        return snapshot().version();
+    }
+
+    /** @return the genre, or {@code null} if it is not known */
+    public GenreInfoDto find(UUID id) {
+        return snapshot().byId().get(id);
+    }
+
+    public Optional<UUID> findIdByName(String name) {
+        UUID id = snapshot().byName().get(name);
+        if (id == null && refreshOnMiss()) {
+            id = snapshot().byName().get(name);
+        }
+        return Optional.ofNullable(id);
+    }
+
+    /** @return the ids that do not belong to any genre, in the given order */
+    public List<UUID> findMissingIds(Collection<UUID> ids) {
+        List<UUID> missing = missingIn(snapshot(), ids);
+        if (!missing.isEmpty() && refreshOnMiss()) {
+            missing = missingIn(snapshot(), ids);
+        }
+        return missing;
+    }
+
+    public List<UUID> findExistingIds(Collection<UUID> ids) {
+        List<UUID> missing = findMissingIds(ids);
+        List<UUID> existing = new ArrayList<>(ids);
+        existing.removeAll(missing);
+        return existing;
+    }
+
+    /** Picks up changes made by other instances or outside of JPA. */
+    @Scheduled(fixedDelayString = "${genre.registry.refresh-interval}")
+    public void refresh() {
+        refreshIfChanged();
+    }
+
+    /**
+     * Checks for changes after a lookup missed, unless that was done less than
+     * {@code genre.registry.miss-refresh-interval} ago. Of concurrent misses only one runs the check.
+     *
+     * @return whether the genres were reloaded
+     */
+    private boolean refreshOnMiss() {
+        long last = lastMissRefresh.get();
+        long now = System.nanoTime();
+        if (now - last < missRefreshIntervalNanos || !lastMissRefresh.compareAndSet(last, now)) {
+            return false;
+        }
+        return refreshIfChanged();
+    }
+
+    /**
+     * Reloads the genres if the table changed since the snapshot was taken.
+     *
+     * @return whether the genres were reloaded
+     */
+    private boolean refreshIfChanged() {
+        String version = loadTransaction.execute(status -> genreRepository.findVersion());
+        Snapshot current = snapshot;
+        if (current != null && current.version().equals(version)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * Reloads the genres once the current transaction commits, or right away outside of one.
+     */
+    void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private synchronized void reload() {
+        snapshot = loadTransaction.execute(status -> {
+            String version = genreRepository.findVersion();
+            List<Genre> genres = genreRepository.findAll();
+
+            Map<UUID, GenreInfoDto> byId = new LinkedHashMap<>();
+            Map<String, UUID> byName = new HashMap<>();
+            for (Genre genre : genres) {
+                byId.put(genre.getId(), new GenreInfoDto(genre.getId(), genre.getName()));
+                byName.put(genre.getName(), genre.getId());
+            }
+            return new Snapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                List.copyOf(byId.values()));
+        });
+    }
+
+    private static List<UUID> missingIn(Snapshot snapshot, Collection<UUID> ids) {
+        List<UUID> missing = new ArrayList<>(0);
+        for (UUID id : ids) {
+            if (id == null || !snapshot.byId().containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private record Snapshot(String version, Map<UUID, GenreInfoDto> byId, Map<String, UUID> byName,
+            List<GenreInfoDto> all) {
+    }
+}
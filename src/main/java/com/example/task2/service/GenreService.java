@@ -1,9 +1,13 @@
 package com.example.task2.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.example.task2.dto.GenreInfoDto;
@@ -11,8 +15,10 @@ import com.example.task2.dto.SaveGenreDto;
 import com.example.task2.exception.custom.DuplicateNameException;
 import com.example.task2.exception.custom.ResourceNotFoundException;
 import com.example.task2.model.Genre;
+import com.example.task2.model.UuidV7Generator;
 import com.example.task2.repository.GenreRepository;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -20,35 +26,58 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class GenreService {
 
+    private static final String UNIQUE_NAME_CONSTRAINT = "uq_genres_name";
+
     private final GenreRepository genreRepository;
+    private final GenreRegistry genreRegistry;
+    private final EntityManager entityManager;
+    private final SongDetailsCache songDetailsCache;
 
     public Genre findById(UUID id){
         return genreRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Genre", id));
     }
 
+    /**
+     * Checks the ids against the {@link GenreRegistry} and returns references to the genres, so assigning genres
+     * to a song does not query the {@code genres} table.
+     */
     public List<Genre> findAllById(List<UUID> ids){
-        
-        List<Genre> foundGenres = genreRepository.findAllById(ids);
-        
-        if (foundGenres.size() != ids.size()) {
-            
-            List<UUID> foundIds = foundGenres.stream()
-                .map(Genre::getId)
-                .collect(Collectors.toList());
-            
-            String missingIds = ids.stream()
-                .filter(id -> !foundIds.contains(id))
-                .map(UUID::toString)
+
+        checkExist(ids);
+
+        List<Genre> genres = new ArrayList<>(ids.size());
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            genres.add(entityManager.getReference(Genre.class, id));
+        }
+        return genres;
+    }
+
+    /**
+     * Checks the ids against the {@link GenreRegistry}, which only queries for ids it does not know.
+     *
+     * @throws ResourceNotFoundException listing every id that belongs to no genre
+     */
+    public void checkExist(List<UUID> ids){
+
+        List<UUID> missing = genreRegistry.findMissingIds(ids);
+
+        if (!missing.isEmpty()) {
+
+            String missingIds = missing.stream()
+                .map(String::valueOf)
                 .collect(Collectors.joining(", "));
-                
+
             throw new ResourceNotFoundException("Genre(s) with ID(s) not found:", missingIds);
         }
-        
-        return foundGenres;
     }
 
+    /** Takes the name from the registry when it can, so an uninitialized genre reference is not loaded. */
     public GenreInfoDto convertToDetails(Genre genre){
+        GenreInfoDto known = genreRegistry.find(genre.getId());
+        if (known != null) {
+            return known;
+        }
         return new GenreInfoDto(
             genre.getId(),
             genre.getName()
@@ -56,33 +85,59 @@ public class GenreService {
     }
 
     public List<GenreInfoDto> findAll(){
-        return genreRepository.findAll().stream()
-        .map(g -> convertToDetails(g)).collect(Collectors.toList());
+        return genreRegistry.findAll();
+    }
+
+    public String findVersion(){
+        return genreRegistry.getVersion();
     }
 
     @Transactional
     public UUID save(SaveGenreDto saveGenreDto){
-        if(genreRepository.existsByName(saveGenreDto.getName())){
-            throw new DuplicateNameException("Genre", saveGenreDto.getName());
+        UUID id = genreRepository.insertIfAbsent(UuidV7Generator.next(), saveGenreDto.getName())
+            .orElseThrow(() -> new DuplicateNameException("Genre", saveGenreDto.getName()));
+        // a native insert skips the entity listeners
+        genreRegistry.invalidate();
+        return id;
+    }
+
+    /** Returns the id of the genre with the name, creating it first if there is none. */
+    @Transactional
+    public UUID findOrCreate(SaveGenreDto saveGenreDto){
+        UUID newId = UuidV7Generator.next();
+        String name = saveGenreDto.getName();
+        UUID id = genreRepository.insertOrFindId(newId, name)
+            .or(() -> genreRepository.insertOrFindId(newId, name))
+            .orElseThrow(() -> new DuplicateNameException("Genre", name));
+        if (id.equals(newId)) {
+            genreRegistry.invalidate();
         }
-        Genre genre = Genre.builder()
-        .name(saveGenreDto.getName())
-        .build();
-        return genreRepository.save(genre).getId();
+        return id;
     }
 
+    /** A taken name, also one taken by a racing write, is reported by the unique constraint; no check beforehand. */
     @Transactional
     public UUID update(UUID id, SaveGenreDto saveGenreDto){
-        if(genreRepository.existsByNameAndIdNot(saveGenreDto.getName(), id)){
-            throw new DuplicateNameException("Genre", saveGenreDto.getName());
-        }
         Genre genreToUpdate = findById(id);
         genreToUpdate.setName(saveGenreDto.getName());
-        return genreRepository.save(genreToUpdate).getId();
+        try {
+            return genreRepository.saveAndFlush(genreToUpdate).getId();
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_NAME_CONSTRAINT.equals(violation.getConstraintName())) {
+                throw new DuplicateNameException("Genre", saveGenreDto.getName());
+            }
+            throw ex;
+        }
     }
 
+    @Transactional
     public void delete(UUID id){
-        Genre genre = findById(id);
-        genreRepository.delete(genre);
+        if (genreRepository.deleteRowById(id) == 0) {
+            throw new ResourceNotFoundException("Genre", id);
+        }
+        // a bulk delete skips the entity listeners
+        genreRegistry.invalidate();
+        songDetailsCache.evictReferencing(id);
     }
 }
@@ -0,0 +1,76 @@
+package com.example.task2.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.exception.custom.InvalidRecordException;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Reads the elements of a single top-level JSON array. An element that is not a valid song is skipped;
+ * if it is so broken that it cannot even be skipped, e.g. because the file ends inside it, the reader stops
+ * there and rejects it as {@code TRUNCATED_INPUT}, which marks that nothing from that record on was read.
+ */
+final class JsonArrayRecordReader implements SongRecordReader {
+
+    private final JsonReader jsonReader;
+    private final Gson gson;
+    private boolean started;
+    private boolean finished;
+
+    JsonArrayRecordReader(Reader reader, Gson gson) {
+        this.jsonReader = new JsonReader(reader);
+        this.gson = gson;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (!started) {
+            jsonReader.beginArray();
+            started = true;
+        }
+        if (jsonReader.hasNext()) {
+            return true;
+        }
+        jsonReader.endArray();
+        finished = true;
+        return false;
+    }
+
+    @Override
+    public SaveSongDto next() throws IOException {
+        SaveSongDto saveSongDto;
+        try {
+            saveSongDto = gson.fromJson(jsonReader, SaveSongDto.class);
+        } catch (JsonParseException e) {
+            try {
+                jsonReader.skipValue();
+            } catch (IOException skipFailure) {
+                finished = true;
+                throw new InvalidRecordException("TRUNCATED_INPUT",
+                    "Parsing error, the rest of the file cannot be read: " + skipFailure.getMessage(), null);
+            }
+            throw new InvalidRecordException("INVALID_RECORD", "Parsing error: " + e.getMessage(), null);
+        }
+        if (saveSongDto == null) {
+            throw new InvalidRecordException("INVALID_RECORD", "Parsing error: element is not a song.", null);
+        }
+        return saveSongDto;
+    }
+
+    @Override
+    public void skip() throws IOException {
+        jsonReader.skipValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        jsonReader.close();
+    }
+}
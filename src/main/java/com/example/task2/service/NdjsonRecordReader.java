@@ -0,0 +1,69 @@
+package com.example.task2.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.exception.custom.InvalidRecordException;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Reads one JSON song per line. Blank lines are ignored; a line that does not parse is rejected on its own.
+ */
+final class NdjsonRecordReader implements SongRecordReader {
+
+    private final BufferedReader reader;
+    private final Gson gson;
+    private String line;
+
+    NdjsonRecordReader(BufferedReader reader, Gson gson) {
+        this.reader = reader;
+        this.gson = gson;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        while (line == null) {
+            String read = reader.readLine();
+            if (read == null) {
+                return false;
+            }
+            if (!read.isBlank()) {
+                line = read;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public SaveSongDto next() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more records.");
+        }
+        String current = line;
+        line = null;
+        SaveSongDto saveSongDto;
+        try {
+            saveSongDto = gson.fromJson(current, SaveSongDto.class);
+        } catch (JsonParseException e) {
+            throw new InvalidRecordException("INVALID_RECORD", "Parsing error: " + e.getMessage(), null);
+        }
+        if (saveSongDto == null) {
+            throw new InvalidRecordException("INVALID_RECORD", "Parsing error: line is not a song.", null);
+        }
+        return saveSongDto;
+    }
+
+    @Override
+    public void skip() throws IOException {
+        if (hasNext()) {
+            line = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.task2.service;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.task2.config.HibernateCacheConfig;
+import com.example.task2.model.Album;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Evicts the cached artist and album queries of {@link HibernateCacheConfig#REFERENCE_QUERY_REGION}, and if asked
+ * the cached albums, after rows were written behind Hibernate's back. Evicting only once the transaction commits keeps a query running
+ * meanwhile from caching the old answer again, e.g. that a name is not taken yet.
+ */
+@Service
+public class ReferenceQueryCache {
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceQueryCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void evictAfterCommit() {
+        afterCommit(() -> sessionFactory.getCache().evictQueryRegion(HibernateCacheConfig.REFERENCE_QUERY_REGION));
+    }
+
+    /**
+     * Also evicts the cached albums, e.g. after the database cascaded the deletion of an artist to its albums.
+     */
+    public void evictWithAlbumsAfterCommit() {
+        afterCommit(() -> {
+            Cache cache = sessionFactory.getCache();
+            cache.evictEntityData(Album.class);
+            cache.evictQueryRegion(HibernateCacheConfig.REFERENCE_QUERY_REGION);
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
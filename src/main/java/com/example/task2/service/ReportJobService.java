@@ -0,0 +1,222 @@
+package com.example.task2.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.task2.config.AsyncConfig;
+import com.example.task2.dto.ReportEngine;
+import com.example.task2.dto.ReportJobDto;
+import com.example.task2.dto.SongFilter;
+import com.example.task2.exception.custom.ReportNotReadyException;
+import com.example.task2.exception.custom.ResourceNotFoundException;
+import com.example.task2.model.ReportJob;
+import com.example.task2.model.ReportJobStatus;
+import com.example.task2.repository.ReportJobRepository;
+
+/**
+ * Runs song reports in the background and keeps the finished files on local disk until they expire.
+ * A job submitted for a filter and engine that already have a pending, running or completed job within the TTL
+ * gets that job back instead of a new export.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final Set<ReportJobStatus> REUSABLE_STATUSES =
+        EnumSet.of(ReportJobStatus.PENDING, ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED);
+
+    private static final Set<ReportJobStatus> ACTIVE_STATUSES =
+        EnumSet.of(ReportJobStatus.PENDING, ReportJobStatus.RUNNING);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ReportJobRepository reportJobRepository;
+    private final SongService songService;
+    private final TaskExecutor reportJobExecutor;
+    private final Path directory;
+    private final Duration ttl;
+
+    public ReportJobService(ReportJobRepository reportJobRepository,
+            SongService songService,
+            @Qualifier(AsyncConfig.REPORT_JOB_EXECUTOR) TaskExecutor reportJobExecutor,
+            @Value("${report.jobs.directory}") Path directory,
+            @Value("${report.jobs.ttl}") Duration ttl) {
+        this.reportJobRepository = reportJobRepository;
+        this.songService = songService;
+        this.reportJobExecutor = reportJobExecutor;
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    public synchronized ReportJobDto submit(SongFilter songFilter, boolean gzip, ReportEngine engine) {
+        String filterKey = filterKey(songFilter, engine);
+        Instant now = Instant.now();
+
+        ReportJob existing = reportJobRepository
+            .findFirstByFilterKeyAndGzipAndStatusInAndExpiresAtAfterOrderByCreatedAtDesc(filterKey, gzip, REUSABLE_STATUSES, now)
+            .orElse(null);
+        if (existing != null) {
+            return convertToDto(existing);
+        }
+
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+            .filterKey(filterKey)
+            .status(ReportJobStatus.PENDING)
+            .gzip(gzip)
+            .createdAt(now)
+            .expiresAt(now.plus(ttl))
+            .build());
+
+        try {
+            reportJobExecutor.execute(() -> run(job.getId(), songFilter, engine));
+        } catch (TaskRejectedException e) {
+            fail(job, "Report queue is full, try again later.");
+        }
+        return convertToDto(job);
+    }
+
+    public ReportJobDto getJob(UUID id) {
+        return convertToDto(findById(id));
+    }
+
+    public ReportJob getCompletedJob(UUID id) {
+        ReportJob job = findById(id);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ReportNotReadyException("Report job " + id + " is " + job.getStatus() + ".");
+        }
+        if (!Files.isRegularFile(Path.of(job.getFilePath()))) {
+            throw new ResourceNotFoundException("Report file", id);
+        }
+        return job;
+    }
+
+    public Resource getArtifact(ReportJob job) {
+        return new FileSystemResource(job.getFilePath());
+    }
+
+    /**
+     * Jobs that were still queued or running when the application stopped can never finish.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        for (ReportJob job : reportJobRepository.findByStatusIn(ACTIVE_STATUSES)) {
+            fail(job, "Interrupted by application restart.");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${report.jobs.cleanup-interval}")
+    public void deleteExpiredJobs() {
+        for (ReportJob job : reportJobRepository.findByExpiresAtBefore(Instant.now())) {
+            if (ACTIVE_STATUSES.contains(job.getStatus())) {
+                continue;
+            }
+            deleteQuietly(job.getFilePath());
+            reportJobRepository.delete(job);
+        }
+    }
+
+    private void run(UUID id, SongFilter songFilter, ReportEngine engine) {
+        ReportJob job = findById(id);
+        job.setStatus(ReportJobStatus.RUNNING);
+        reportJobRepository.save(job);
+
+        Path target = directory.resolve(id + (job.isGzip() ? ".csv.gz" : ".csv"));
+        Path part = directory.resolve(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream fileStream = Files.newOutputStream(part)) {
+                OutputStream outputStream = job.isGzip() ? new GZIPOutputStream(fileStream, 64 * 1024) : fileStream;
+                songService.writeReport(outputStream, songFilter, engine);
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setStatus(ReportJobStatus.COMPLETED);
+            job.setFilePath(target.toString());
+            job.setSizeBytes(Files.size(target));
+            job.setCompletedAt(Instant.now());
+            reportJobRepository.save(job);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part.toString());
+            fail(job, "Failed to generate report: " + e.getMessage());
+        }
+    }
+
+    private void fail(ReportJob job, String message) {
+        job.setStatus(ReportJobStatus.FAILED);
+        job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        job.setCompletedAt(Instant.now());
+        reportJobRepository.save(job);
+    }
+
+    private ReportJob findById(UUID id) {
+        return reportJobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Report job", id));
+    }
+
+    private void deleteQuietly(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(filePath));
+        } catch (IOException e) {
+            log.warn("Failed to delete report file {}", filePath, e);
+        }
+    }
+
+    /**
+     * Name filters match case-insensitively, so filters differing only in case share a report. Each engine
+     * produces its own report, so a job asking for one never gets the file of the other.
+     */
+    private static String filterKey(SongFilter songFilter, ReportEngine engine) {
+        String canonical = String.join("\u0000",
+            engine.name(),
+            normalize(songFilter.getAlbumName()),
+            normalize(songFilter.getArtistName()),
+            Objects.toString(songFilter.getReleasedYear(), ""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null || name.isBlank() ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private ReportJobDto convertToDto(ReportJob job) {
+        return new ReportJobDto(job.getId(), job.getStatus(), job.isGzip(), job.getSizeBytes(), job.getErrorMessage(),
+            job.getCreatedAt(), job.getCompletedAt(), job.getExpiresAt());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.task2.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.example.task2.dto.BulkItemResultDto;
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.exception.custom.ResourceNotFoundException;
+import com.example.task2.model.Song;
+import com.example.task2.repository.AlbumRepository;
+import com.example.task2.repository.ArtistRepository;
+import com.example.task2.repository.SongRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Creates, reads and deletes many songs per request. Each operation costs a fixed number of statements
+ * however many items it gets: references are checked with one {@code IN} query per table, new songs go out
+ * as JDBC batches, reads and deletes are a single statement each. An item that fails does not fail
+ * the others, its outcome is reported in its own {@link BulkItemResultDto}. The size of a request is
+ * checked by the controller against {@link #MAX_ITEMS}.
+ */
+@Service
+public class SongBulkService {
+
+    /** Most items one bulk request may carry. */
+    public static final int MAX_ITEMS = 5000;
+
+    private final SongRepository songRepository;
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final GenreRegistry genreRegistry;
+    private final SongService songService;
+    private final SongDetailsCache songDetailsCache;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    public SongBulkService(SongRepository songRepository,
+            ArtistRepository artistRepository,
+            AlbumRepository albumRepository,
+            GenreRegistry genreRegistry,
+            SongService songService,
+            SongDetailsCache songDetailsCache,
+            EntityManager entityManager,
+            Validator validator) {
+        this.songRepository = songRepository;
+        this.artistRepository = artistRepository;
+        this.albumRepository = albumRepository;
+        this.genreRegistry = genreRegistry;
+        this.songService = songService;
+        this.songDetailsCache = songDetailsCache;
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    /**
+     * Creates the valid songs in one transaction. Invalid songs are answered with {@code 400} and songs
+     * pointing to a missing artist, album or genre with {@code 404}, as {@code POST /api/song} would.
+     */
+    @Transactional
+    public List<BulkItemResultDto> createSongs(List<SaveSongDto> songs) {
+        SongReferenceResolver references = new SongReferenceResolver(artistRepository, albumRepository,
+            genreRegistry, entityManager);
+        references.preload(songs.stream().filter(Objects::nonNull).toList());
+
+        BulkItemResultDto[] results = new BulkItemResultDto[songs.size()];
+        List<Song> created = new ArrayList<>(songs.size());
+        List<Integer> positions = new ArrayList<>(songs.size());
+        for (int i = 0; i < songs.size(); i++) {
+            SaveSongDto saveSongDto = songs.get(i);
+            if (saveSongDto == null) {
+                results[i] = new BulkItemResultDto(HttpStatus.BAD_REQUEST.value(), null, "Item must not be null.");
+                continue;
+            }
+            Set<ConstraintViolation<SaveSongDto>> violations = validator.validate(saveSongDto);
+            if (!violations.isEmpty()) {
+                results[i] = new BulkItemResultDto(HttpStatus.BAD_REQUEST.value(), null, describe(violations));
+                continue;
+            }
+            try {
+                created.add(references.toEntity(saveSongDto));
+                positions.add(i);
+            } catch (ResourceNotFoundException e) {
+                results[i] = new BulkItemResultDto(HttpStatus.NOT_FOUND.value(), null, e.getMessage());
+            }
+        }
+
+        songRepository.saveAll(created);
+        songRepository.flush();
+        // nothing left to write, spare the commit from dirty checking every new song
+        entityManager.clear();
+        for (int i = 0; i < created.size(); i++) {
+            results[positions.get(i)] = new BulkItemResultDto(HttpStatus.CREATED.value(), created.get(i).getId(), null);
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Loads the songs with their artists, albums and genres in one query; unknown ids are answered with {@code 404}. */
+    public List<BulkItemResultDto> getSongs(List<UUID> ids) {
+        Map<UUID, Song> found = new HashMap<>();
+        for (Song song : songRepository.findWithDetailsByIdIn(new HashSet<>(ids))) {
+            found.put(song.getId(), song);
+        }
+
+        List<BulkItemResultDto> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Song song = found.get(id);
+            if (song == null) {
+                results.add(notFound(id));
+            } else {
+                results.add(new BulkItemResultDto(HttpStatus.OK.value(), id, null, songService.convertToDetails(song)));
+            }
+        }
+        return results;
+    }
+
+    /** Deletes the songs with one statement; ids that belong to no song are answered with {@code 404}. */
+    @Transactional
+    public List<BulkItemResultDto> deleteSongs(List<UUID> ids) {
+        Set<UUID> deleted = new HashSet<>(songRepository.deleteByIdInReturningId(new HashSet<>(ids)));
+        deleted.forEach(songDetailsCache::evict);
+
+        List<BulkItemResultDto> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            if (deleted.contains(id)) {
+                results.add(new BulkItemResultDto(HttpStatus.NO_CONTENT.value(), id, null));
+            } else {
+                results.add(notFound(id));
+            }
+        }
+        return results;
+    }
+
+    /** Same text as the {@code 400} answer of the single-item endpoint. */
+    private static String describe(Set<ConstraintViolation<SaveSongDto>> violations) {
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .collect(Collectors.joining(", "));
+    }
+
+    private static BulkItemResultDto notFound(UUID id) {
+        return new BulkItemResultDto(HttpStatus.NOT_FOUND.value(), id, "Song with id '" + id + "' not found.");
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.task2.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Song details already serialized to JSON, so a hit is answered without Hibernate, the DTO conversion or
+ * Jackson. Holds at most {@code song.details.cache.max-size} songs; the ones read least recently are dropped first.
+ * <p>
+ * Entries are evicted when this instance changes the song, or renames or deletes an artist, album or genre
+ * embedded in it, once the change commits. Changes made by other instances or by plain SQL are only noticed when
+ * the entry expires, {@code song.details.cache.ttl} after it was written. Hits and misses are published as the
+ * {@code cache.gets} metric with the tag {@code cache=song-details}.
+ */
+@Service
+public class SongDetailsCache {
+
+    private final Cache<UUID, SerializedSong> songs;
+
+    // ids of the cached songs embedding each artist, album or genre; only changed inside the atomic
+    // operation on the entry, so it always matches what is cached
+    private final Map<UUID, Set<UUID>> songsByReference = new ConcurrentHashMap<>();
+
+    // loads in progress, one per song; an eviction marks the load of the same song, or of a song embedding
+    // the evicted reference, so that what it may have read before the change is not cached
+    private final Map<UUID, Load> loads = new ConcurrentHashMap<>();
+
+    public SongDetailsCache(@Value("${song.details.cache.max-size}") long maxSize,
+            @Value("${song.details.cache.ttl}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.songs = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .evictionListener((UUID id, SerializedSong song, RemovalCause cause) -> unindex(id, song))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, songs, "song-details");
+    }
+
+    /** @return the cached song, or {@code null} on a miss */
+    public SerializedSong find(UUID id) {
+        return songs.getIfPresent(id);
+    }
+
+    /**
+     * Runs the loader and caches what it returns, unless the song, or an artist, album or genre it embeds,
+     * was evicted while it ran. The loader must read the version of the song before the song itself.
+     */
+    public SerializedSong load(UUID id, Supplier<SerializedSong> loader) {
+        Load load = new Load();
+        loads.put(id, load);
+        SerializedSong song;
+        try {
+            song = loader.get();
+        } catch (RuntimeException e) {
+            loads.remove(id, load);
+            throw e;
+        }
+        songs.asMap().compute(id, (key, cached) -> {
+            if (!loads.remove(key, load) || load.isStale(song)) {
+                return cached;
+            }
+            if (cached != null) {
+                unindex(key, cached);
+            }
+            index(key, song);
+            return song;
+        });
+        return song;
+    }
+
+    public void evict(UUID songId) {
+        afterCommit(() -> {
+            Load load = loads.get(songId);
+            if (load != null) {
+                load.stale = true;
+            }
+            remove(songId);
+        });
+    }
+
+    /** Evicts the songs that embed the artist, album or genre, found through the reverse index. */
+    public void evictReferencing(UUID referenceId) {
+        afterCommit(() -> {
+            loads.values().forEach(load -> load.evictedReferences.add(referenceId));
+            Set<UUID> songIds = songsByReference.get(referenceId);
+            if (songIds != null) {
+                List.copyOf(songIds).forEach(this::remove);
+            }
+        });
+    }
+
+    public void evictAll() {
+        afterCommit(() -> {
+            loads.values().forEach(load -> load.stale = true);
+            songs.asMap().keySet().forEach(this::remove);
+        });
+    }
+
+    private void remove(UUID songId) {
+        songs.asMap().computeIfPresent(songId, (key, cached) -> {
+            unindex(key, cached);
+            return null;
+        });
+    }
+
+    private void index(UUID songId, SerializedSong song) {
+        for (UUID reference : song.references()) {
+            songsByReference.compute(reference, (key, songIds) -> {
+                Set<UUID> updated = songIds == null ? ConcurrentHashMap.newKeySet() : songIds;
+                updated.add(songId);
+                return updated;
+            });
+        }
+    }
+
+    private void unindex(UUID songId, SerializedSong song) {
+        for (UUID reference : song.references()) {
+            songsByReference.computeIfPresent(reference, (key, songIds) -> {
+                songIds.remove(songId);
+                return songIds.isEmpty() ? null : songIds;
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private static final class Load {
+
+        private volatile boolean stale;
+        private final Set<UUID> evictedReferences = ConcurrentHashMap.newKeySet();
+
+        private boolean isStale(SerializedSong song) {
+            if (stale) {
+                return true;
+            }
+            for (UUID reference : evictedReferences) {
+                if (song.references().contains(reference)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param version the ETag of the song
+     * @param json the song details as served by {@code GET /api/song/{id}}
+     * @param references the ids of the artists, album and genres embedded in the details
+     */
+    public record SerializedSong(String version, byte[] json, Set<UUID> references) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.task2.service;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.task2.model.Album;
+import com.example.task2.model.Artist;
+import com.example.task2.model.Genre;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Evicts the cached songs embedding an artist, album or genre that was renamed or deleted through JPA.
+ * Inserts are not watched, no cached song can embed a row that did not exist yet.
+ */
+public class SongDetailsChangeListener {
+
+    private final ObjectProvider<SongDetailsCache> songDetailsCache;
+
+    public SongDetailsChangeListener(ObjectProvider<SongDetailsCache> songDetailsCache) {
+        this.songDetailsCache = songDetailsCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void referenceChanged(Object entity) {
+        UUID id = switch (entity) {
+            case Artist artist -> artist.getId();
+            case Album album -> album.getId();
+            case Genre genre -> genre.getId();
+            default -> throw new IllegalArgumentException("Not embedded in song details: " + entity.getClass());
+        };
+        songDetailsCache.ifAvailable(cache -> cache.evictReferencing(id));
+    }
+}
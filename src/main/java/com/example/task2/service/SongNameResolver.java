@@ -0,0 +1,66 @@
+package com.example.task2.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task2.repository.AlbumRepository;
+import com.example.task2.repository.ArtistRepository;
+
+/**
+ * Looks up artists, albums and genres by the names the song report prints. Every artist and album name is
+ * queried once per upload; the answer, found or not, is remembered. Genres come from the {@link GenreRegistry}. Lookups run in their own read-only transaction,
+ * because a {@code COPY} import keeps the connection of the upload transaction busy while records are read.
+ *
+ * <p>Not thread-safe; create one per upload.
+ */
+public class SongNameResolver {
+
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final GenreRegistry genreRegistry;
+    private final TransactionTemplate lookupTransaction;
+
+    private final Map<String, Optional<UUID>> artists = new HashMap<>();
+    private final Map<AlbumKey, Optional<UUID>> albums = new HashMap<>();
+    private final Map<String, Optional<UUID>> genres = new HashMap<>();
+
+    public SongNameResolver(ArtistRepository artistRepository,
+            AlbumRepository albumRepository,
+            GenreRegistry genreRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.artistRepository = artistRepository;
+        this.albumRepository = albumRepository;
+        this.genreRegistry = genreRegistry;
+        this.lookupTransaction = new TransactionTemplate(transactionManager);
+        this.lookupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lookupTransaction.setReadOnly(true);
+    }
+
+    public Optional<UUID> findArtistId(String name) {
+        return artists.computeIfAbsent(name, key -> lookup(() -> artistRepository.findIdByName(key)));
+    }
+
+    /** Album names are only unique per artist. */
+    public Optional<UUID> findAlbumId(String name, UUID artistId) {
+        return albums.computeIfAbsent(new AlbumKey(name, artistId),
+            key -> lookup(() -> albumRepository.findIdByNameAndArtistId(key.name(), key.artistId())));
+    }
+
+    public Optional<UUID> findGenreId(String name) {
+        return genres.computeIfAbsent(name, genreRegistry::findIdByName);
+    }
+
+    private Optional<UUID> lookup(Supplier<Optional<UUID>> query) {
+        return lookupTransaction.execute(status -> query.get());
+    }
+
+    private record AlbumKey(String name, UUID artistId) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.task2.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.dto.UploadFormat;
+import com.example.task2.exception.custom.InvalidRecordException;
+import com.google.gson.Gson;
+
+/**
+ * Reads the records of an uploaded file one at a time, whatever its format, so that no upload mode
+ * has to hold the file or its records in memory.
+ */
+interface SongRecordReader extends Closeable {
+
+    int BUFFER_SIZE = 64 * 1024;
+
+    boolean hasNext() throws IOException;
+
+    /**
+     * @throws InvalidRecordException if the next record cannot be read; the reader then moves on to the record after it
+     */
+    SaveSongDto next() throws IOException;
+
+    /**
+     * Moves past the next record without building it, e.g. to resume an upload behind its last checkpoint.
+     */
+    void skip() throws IOException;
+
+    /**
+     * Opens a reader for {@code inputStream}; gzip-compressed content is recognised by its magic number
+     * and decompressed on the fly.
+     */
+    static SongRecordReader open(InputStream inputStream, UploadFormat format, Gson gson, SongNameResolver names)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(decompressIfGzipped(inputStream), StandardCharsets.UTF_8), BUFFER_SIZE);
+        return switch (format) {
+            case JSON -> new JsonArrayRecordReader(reader, gson);
+            case NDJSON -> new NdjsonRecordReader(reader, gson);
+            case CSV -> new CsvRecordReader(reader, names);
+        };
+    }
+
+    private static InputStream decompressIfGzipped(InputStream inputStream) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        return buffered;
+    }
+}
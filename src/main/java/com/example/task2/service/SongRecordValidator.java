@@ -0,0 +1,51 @@
+package com.example.task2.service;
+
+import java.util.Set;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.repository.SongImportRepository.ImportRecord;
+import com.example.task2.service.UploadRejectionService.RejectionWriter;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Checks uploaded records against the constraints of {@link SaveSongDto} before any upload mode writes them,
+ * so a record breaking them is rejected with the same reason whichever mode reads it, instead of failing
+ * a chunk at flush time or slipping past the database. Safe to share between threads.
+ */
+final class SongRecordValidator {
+
+    private final Validator validator;
+
+    SongRecordValidator(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Writes one rejection per violated constraint of the record.
+     *
+     * @return {@code true} if the record is valid
+     */
+    boolean validate(ImportRecord record, RejectionWriter rejections) {
+        Set<ConstraintViolation<SaveSongDto>> violations = validator.validate(record.song());
+        for (ConstraintViolation<SaveSongDto> violation : violations) {
+            rejections.reject(record.index(), reasonOf(violation), null);
+        }
+        return violations.isEmpty();
+    }
+
+    /** {@code title} becomes {@code INVALID_TITLE}, {@code releaseYear} becomes {@code INVALID_RELEASE_YEAR}. */
+    private static String reasonOf(ConstraintViolation<SaveSongDto> violation) {
+        String property = violation.getPropertyPath().toString();
+        StringBuilder reason = new StringBuilder(property.length() + 12).append("INVALID_");
+        for (int i = 0; i < property.length(); i++) {
+            char c = property.charAt(i);
+            if (Character.isUpperCase(c)) {
+                reason.append('_');
+            }
+            reason.append(Character.toUpperCase(c));
+        }
+        return reason.toString();
+    }
+}
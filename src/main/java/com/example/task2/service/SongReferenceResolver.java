@@ -0,0 +1,173 @@
+package com.example.task2.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.exception.custom.ResourceNotFoundException;
+import com.example.task2.model.Album;
+import com.example.task2.model.Artist;
+import com.example.task2.model.Genre;
+import com.example.task2.model.Song;
+import com.example.task2.repository.AlbumRepository;
+import com.example.task2.repository.ArtistRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Resolves the artist, album and genre references of many songs at once. {@link #preload} checks every id of
+ * a chunk that has not been seen yet with one {@code IN} query for artists and one for albums, and against the
+ * {@link GenreRegistry} for genres; the outcome (found or missing)
+ * is remembered for the lifetime of the resolver, so later chunks and retries only query for new ids.
+ * Songs are then built from {@link EntityManager#getReference} proxies, without loading the referenced rows.
+ *
+ * <p>Create one per upload or bulk write; it may be shared by the threads working on it.
+ */
+public class SongReferenceResolver {
+
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final GenreRegistry genreRegistry;
+    private final EntityManager entityManager;
+
+    public static final String MISSING_ARTIST = "MISSING_ARTIST";
+    public static final String MISSING_ALBUM = "MISSING_ALBUM";
+    public static final String MISSING_GENRE = "MISSING_GENRE";
+
+    private final KnownIds artists = new KnownIds();
+    private final KnownIds albums = new KnownIds();
+    private final KnownIds genres = new KnownIds();
+
+    public SongReferenceResolver(ArtistRepository artistRepository,
+            AlbumRepository albumRepository,
+            GenreRegistry genreRegistry,
+            EntityManager entityManager) {
+        this.artistRepository = artistRepository;
+        this.albumRepository = albumRepository;
+        this.genreRegistry = genreRegistry;
+        this.entityManager = entityManager;
+    }
+
+    public void preload(Collection<SaveSongDto> records) {
+        artists.load(collect(records, dto -> Collections.singletonList(dto.getArtistId())), artistRepository::findExistingIds);
+        albums.load(collect(records, dto -> Collections.singletonList(dto.getAlbumId())), albumRepository::findExistingIds);
+        genres.load(collect(records, dto -> dto.getGenresId() == null ? List.of() : dto.getGenresId()), genreRegistry::findExistingIds);
+    }
+
+    /**
+     * Checks the references of a record whose ids were passed to {@link #preload} before.
+     *
+     * @throws ResourceNotFoundException if the artist, the album or any of the genres does not exist
+     */
+    public void check(SaveSongDto saveSongDto) {
+        MissingReference missing = findMissing(saveSongDto);
+        if (missing == null) {
+            return;
+        }
+        throw switch (missing.reason()) {
+            case MISSING_ARTIST -> new ResourceNotFoundException("Artist", missing.ids());
+            case MISSING_ALBUM -> new ResourceNotFoundException("Album", missing.ids());
+            default -> new ResourceNotFoundException("Genre(s) with ID(s) not found:", missing.ids());
+        };
+    }
+
+    /**
+     * Like {@link #check}, but reports the first missing reference instead of throwing, which keeps
+     * rejecting many records cheap.
+     *
+     * @return the missing reference, or {@code null} if all references exist
+     */
+    public MissingReference findMissing(SaveSongDto saveSongDto) {
+        UUID artistId = saveSongDto.getArtistId();
+        if (artistId == null || !artists.exists(artistId)) {
+            return new MissingReference(MISSING_ARTIST, String.valueOf(artistId));
+        }
+
+        UUID albumId = saveSongDto.getAlbumId();
+        if (albumId != null && !albums.exists(albumId)) {
+            return new MissingReference(MISSING_ALBUM, albumId.toString());
+        }
+
+        List<UUID> genreIds = saveSongDto.getGenresId() == null ? List.of() : saveSongDto.getGenresId();
+        StringBuilder missingGenres = null;
+        for (UUID genreId : genreIds) {
+            if (genreId == null || !genres.exists(genreId)) {
+                missingGenres = missingGenres == null ? new StringBuilder() : missingGenres.append(' ');
+                missingGenres.append(genreId);
+            }
+        }
+        return missingGenres == null ? null : new MissingReference(MISSING_GENRE, missingGenres.toString());
+    }
+
+    /**
+     * Builds a song for a record whose ids were passed to {@link #preload} before.
+     *
+     * @throws ResourceNotFoundException if the artist, the album or any of the genres does not exist
+     */
+    public Song toEntity(SaveSongDto saveSongDto) {
+        check(saveSongDto);
+
+        UUID albumId = saveSongDto.getAlbumId();
+        List<UUID> genreIds = saveSongDto.getGenresId() == null ? List.of() : saveSongDto.getGenresId();
+        List<Genre> genreReferences = new ArrayList<>(genreIds.size());
+        for (UUID genreId : genreIds) {
+            genreReferences.add(entityManager.getReference(Genre.class, genreId));
+        }
+
+        return Song.builder().title(saveSongDto.getTitle())
+            .album(albumId == null ? null : entityManager.getReference(Album.class, albumId))
+            .artist(entityManager.getReference(Artist.class, saveSongDto.getArtistId()))
+            .duration(saveSongDto.getDuration())
+            .releaseYear(saveSongDto.getReleaseYear())
+            .genres(genreReferences)
+            .build();
+    }
+
+    private static Set<UUID> collect(Collection<SaveSongDto> records, Function<SaveSongDto, List<UUID>> ids) {
+        Set<UUID> collected = new HashSet<>();
+        for (SaveSongDto saveSongDto : records) {
+            for (UUID id : ids.apply(saveSongDto)) {
+                if (id != null) {
+                    collected.add(id);
+                }
+            }
+        }
+        return collected;
+    }
+
+    private static final class KnownIds {
+
+        private final Set<UUID> existing = ConcurrentHashMap.newKeySet();
+        private final Set<UUID> missing = ConcurrentHashMap.newKeySet();
+
+        void load(Set<UUID> ids, Function<Collection<UUID>, List<UUID>> query) {
+            ids.removeIf(id -> existing.contains(id) || missing.contains(id));
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<UUID> found = query.apply(ids);
+            existing.addAll(found);
+            ids.removeAll(found);
+            missing.addAll(ids);
+        }
+
+        boolean exists(UUID id) {
+            return existing.contains(Objects.requireNonNull(id));
+        }
+    }
+
+    /**
+     * @param reason one of the {@code MISSING_*} codes, matching the reasons of the {@code COPY} import
+     * @param ids the ids that were not found, separated by spaces
+     */
+    public record MissingReference(String reason, String ids) {
+    }
+}
@@ -1,38 +1,52 @@
 package com.example.task2.service;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import com.example.task2.dto.ArtistInfoDto;
-import com.example.task2.dto.FileUploadResultDto;
+import com.example.task2.dto.CursorPageDto;
 import com.example.task2.dto.GenreInfoDto;
+import com.example.task2.dto.PatchSongDto;
+import com.example.task2.dto.ReportEngine;
 import com.example.task2.dto.SaveSongDto;
 import com.example.task2.dto.SongFilter;
 import com.example.task2.dto.SongInfoDto;
-import com.example.task2.exception.custom.FileUploadProcessingException;
-import com.example.task2.exception.custom.InvalidFileFormatException;
+import com.example.task2.dto.SongSearchDto;
+import com.example.task2.exception.custom.InvalidFilterException;
 import com.example.task2.exception.custom.ResourceNotFoundException;
 import com.example.task2.model.Album;
 import com.example.task2.model.Song;
+import com.example.task2.repository.SongProjectionRepository.RankedSongInfo;
 import com.example.task2.repository.SongRepository;
+import com.example.task2.service.SongDetailsCache.SerializedSong;
+import com.example.task2.util.SongCursor;
+import com.example.task2.util.SongSearchCursor;
 import com.example.task2.util.SongSpecification;
-import com.google.gson.Gson;
-import com.google.gson.JsonParseException;
-import com.google.gson.stream.JsonReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -41,23 +55,20 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class SongService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    private static final int REPORT_CHUNK_SIZE = 500;
+
     private final GenreService genreService;
     private final SongRepository songRepository;
     private final ArtistService artistService;
     private final AlbumService albumService;
-    private final Gson gson;
+    private final EntityManager entityManager;
+    private final SongDetailsCache songDetailsCache;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     public UUID saveSong(SaveSongDto saveSongDto){
-        Song song = Song.builder().title(saveSongDto.getTitle())
-        .album(getAlbumOrNull(saveSongDto.getAlbumId()))
-        .artist(artistService.findById(saveSongDto.getArtistId()))
-        .duration(saveSongDto.getDuration())
-        .releaseYear(saveSongDto.getReleaseYear())
-        .genres(genreService.findAllById(saveSongDto.getGenresId()))
-        .build();
-
-        return songRepository.save(song).getId();
+        return songRepository.save(convertToEntity(saveSongDto)).getId();
     }
 
     public Song findById(UUID id){
@@ -66,116 +77,193 @@ public class SongService {
     }
 
     public SongInfoDto getSongDetailedInfo(UUID id){
-        Song song = findById(id);
+        Song song = songRepository.findWithDetailsById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Song", id));
         return convertToDetails(song);
     }
 
+    /**
+     * A version of the song details that changes whenever they may have changed, read without loading the song.
+     * Used as the ETag of the song.
+     */
+    public Optional<String> findVersion(UUID id){
+        return songRepository.findVersionById(id);
+    }
+
+    /** @return the cached song details, or {@code null} if they are not cached */
+    public SerializedSong findSerializedSong(UUID id){
+        return songDetailsCache.find(id);
+    }
+
+    /** Loads the song details, serializes them to JSON and caches the result. */
+    public SerializedSong getSerializedSong(UUID id){
+        return songDetailsCache.load(id, () -> {
+            String version = findVersion(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Song", id));
+            SongInfoDto details = getSongDetailedInfo(id);
+            try {
+                return new SerializedSong(version, objectMapper.writeValueAsBytes(details), referencesOf(details));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize song " + id, e);
+            }
+        });
+    }
+
     @Transactional
     public UUID updateSong(UUID id, SaveSongDto saveSongDto){
+        return patchSong(id, PatchSongDto.builder()
+            .title(saveSongDto.getTitle())
+            .artistId(saveSongDto.getArtistId())
+            .releaseYear(saveSongDto.getReleaseYear())
+            .duration(saveSongDto.getDuration())
+            .albumId(saveSongDto.getAlbumId())
+            .genresId(saveSongDto.getGenresId())
+            .build());
+    }
+
+    /**
+     * Changes only the given fields. An artist or album equal to the current one is not looked up again, and
+     * the genres are updated by difference, so links that stay are not rewritten.
+     */
+    @Transactional
+    public UUID patchSong(UUID id, PatchSongDto patchSongDto){
         Song songToUpdate = findById(id);
-        updateFromDto(songToUpdate, saveSongDto);
+        applyPatch(songToUpdate, patchSongDto);
+        songDetailsCache.evict(id);
         return songRepository.save(songToUpdate).getId();
     }
 
+    @Transactional
     public void deleteSong(UUID id){
-        Song songToDelete = findById(id);
-        songRepository.delete(songToDelete);
+        if (songRepository.deleteByIdInReturningId(List.of(id)).isEmpty()) {
+            throw new ResourceNotFoundException("Song", id);
+        }
+        songDetailsCache.evict(id);
+    }
+
+    /**
+     * Deletes every song matching the filter in one statement. An empty filter would delete the whole
+     * catalog and is rejected.
+     *
+     * @return number of songs deleted
+     */
+    @Transactional
+    public int deleteSongs(SongFilter songFilter){
+        if (isBlank(songFilter.getAlbumName()) && isBlank(songFilter.getArtistName())
+                && songFilter.getReleasedYear() == null) {
+            throw new InvalidFilterException("At least one filter criterion is required to delete songs.");
+        }
+        int deleted = songRepository.deleteSongs(songFilter);
+        songDetailsCache.evictAll();
+        return deleted;
     }
 
     public Page<SongInfoDto> getSongs(Pageable pageable, SongFilter songFilter){
 
-        Specification<Song> isAlbum = SongSpecification.isAlbum(songFilter.getAlbumName());
-        Specification<Song> releasedInYear = SongSpecification.releasedInYear(songFilter.getReleasedYear());
-        Specification<Song> isArtist = SongSpecification.isArist(songFilter.getArtistName());
+        return songRepository.findSongInfos(songFilter, pageable);
+    }
+
+    public CursorPageDto<SongInfoDto> getSongs(String cursor, int size, Sort sort, SongFilter songFilter){
 
-        Specification<Song> finalSpec = isAlbum.and(releasedInYear).and(isArtist);
+        SongCursor songCursor = SongCursor.decode(cursor, sort);
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
 
-        Page<Song> songs = songRepository.findAll(finalSpec, pageable);
+        Window<Song> songs = songRepository.findBy(SongSpecification.matches(songFilter),
+            query -> query.sortBy(songCursor.getSort()).limit(limit).scroll(songCursor.getPosition()));
 
-        return songs.map(this::convertToDetails);
+        String nextCursor = null;
+        if (songs.hasNext()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) songs.positionAt(songs.size() - 1);
+            nextCursor = SongCursor.encode(songCursor.getSort(), last);
+        }
+
+        return new CursorPageDto<>(songs.map(this::convertToDetails).getContent(), nextCursor, songs.hasNext());
     }
 
-    public void generateReport(HttpServletResponse response, SongFilter songFilter) throws IOException {
+    public CursorPageDto<SongInfoDto> searchSongs(String cursor, int size, SongSearchDto songSearchDto){
+
+        SongSearchCursor after = SongSearchCursor.decode(cursor);
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+
+        List<RankedSongInfo> hits = songRepository.searchSongs(songSearchDto.getQuery(), after, limit + 1);
+
+        boolean hasNext = hits.size() > limit;
+        List<RankedSongInfo> page = hasNext ? hits.subList(0, limit) : hits;
+
+        String nextCursor = null;
+        if (hasNext) {
+            RankedSongInfo last = page.get(page.size() - 1);
+            nextCursor = new SongSearchCursor(last.rank(), last.song().getId()).encode();
+        }
+
+        return new CursorPageDto<>(page.stream().map(RankedSongInfo::song).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+
+    @Transactional
+    public void generateReport(HttpServletResponse response, SongFilter songFilter, ReportEngine engine) throws IOException {
         response.setContentType("text/csv; charset=UTF-8");
         response.setHeader("Content-Disposition", "attachment; filename=\"songs.csv\"");
 
-        try(PrintWriter writer = response.getWriter()){
-            writer.println("ID,Title,ArtistName,Album,ReleasedYear,Duration,Genres");
+        writeReport(response.getOutputStream(), songFilter, engine);
+    }
 
-            List<SongInfoDto> songs = getFilteredSongsForReport(songFilter);
-            for(SongInfoDto song : songs){
-                String row = String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%d,%s",
-                song.getId(),
-                escapeCsv(song.getTitle()),
-                escapeCsv(song.getArtistInfo().getName()),
-                escapeCsv(song.getAlbum() != null ? song.getAlbum().getName() : ""),
-                song.getReleaseYear(),
-                song.getDuration(),
-                escapeCsv(convertGenresListToString(song.getGenres())));
-                writer.println(row);
+    /**
+     * Streams the report straight from a forward-only cursor. Songs are converted in chunks of
+     * {@code REPORT_CHUNK_SIZE} (so genres are still batch-loaded), written, flushed and then
+     * evicted from the persistence context, keeping heap use flat regardless of the number of rows.
+     * With {@link ReportEngine#COPY} the CSV is rendered by PostgreSQL itself and piped through as is.
+     * The stream is closed when the report is complete.
+     */
+    @Transactional
+    public void writeReport(OutputStream outputStream, SongFilter songFilter, ReportEngine engine) throws IOException {
+        if (engine == ReportEngine.COPY) {
+            try (outputStream) {
+                songRepository.copySongsCsv(songFilter, outputStream);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
+            return;
         }
-    }
 
-    public FileUploadResultDto uploadFromFile(MultipartFile multipartFile) {
-        
-        if (!multipartFile.getOriginalFilename().endsWith(".json")) {
-            throw new InvalidFileFormatException("Only JSON format is supported.");
-        }
-
-        int successCount = 0;
-        int failureCount = 0;
-
-        try (Reader reader = new InputStreamReader(multipartFile.getInputStream(), "UTF-8");
-            JsonReader jsonReader = new JsonReader(reader)) {
-
-            jsonReader.beginArray();
-            while (jsonReader.hasNext()) {
-                
-                try {
-                    SaveSongDto song = gson.fromJson(jsonReader, SaveSongDto.class);
-                    
-                    try {
-                        saveSong(song); 
-                        successCount++;
-                    } catch (ResourceNotFoundException | DataIntegrityViolationException businessEx) {
-                        failureCount++;
-                        System.err.println("Failed to process song: " + businessEx.getMessage());
-
-                    }
-                    
-                } catch (JsonParseException e) {
-                    
-                    failureCount++;
-                    System.err.println("Parsing error: " + e.getMessage());
-                    
-                    try {
-                        jsonReader.skipValue(); 
-                    } catch (IOException ignored) {
-                        System.err.println("Failed to skip corrupted element.");
-                        break;
-                    }
-                } 
+        try(PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            Stream<Song> songs = songRepository.streamAll(SongSpecification.matches(songFilter), REPORT_CHUNK_SIZE)){
+            writer.println("ID,Title,ArtistName,Album,ReleasedYear,Duration,Genres");
+
+            List<Song> chunk = new ArrayList<>(REPORT_CHUNK_SIZE);
+            Iterator<Song> iterator = songs.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == REPORT_CHUNK_SIZE) {
+                    writeReportChunk(writer, chunk);
+                }
             }
-            jsonReader.endArray();
-            
-            return new FileUploadResultDto(successCount, failureCount);
+            writeReportChunk(writer, chunk);
 
-        } catch (IOException e) {
-            throw new FileUploadProcessingException("File reading error: " + e.getMessage());
+            if (writer.checkError()) {
+                throw new IOException("Failed to write report.");
+            }
         }
     }
 
-    private List<SongInfoDto> getFilteredSongsForReport(SongFilter songFilter){
-        Specification<Song> isAlbum = SongSpecification.isAlbum(songFilter.getAlbumName());
-        Specification<Song> releasedInYear = SongSpecification.releasedInYear(songFilter.getReleasedYear());
-        Specification<Song> isArtist = SongSpecification.isArist(songFilter.getArtistName());
-
-        Specification<Song> finalSpec = isAlbum.and(releasedInYear).and(isArtist);
-
-        List<Song> songs = songRepository.findAll(finalSpec);
+    private void writeReportChunk(PrintWriter writer, List<Song> chunk){
+        for (Song song : chunk) {
+            writeReportRow(writer, convertToDetails(song));
+        }
+        writer.flush();
+        chunk.clear();
+        entityManager.clear();
+    }
 
-        return songs.stream().map(s -> convertToDetails(s)).collect(Collectors.toList());
+    private void writeReportRow(PrintWriter writer, SongInfoDto song){
+        String row = String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%d,%s",
+        song.getId(),
+        escapeCsv(song.getTitle()),
+        escapeCsv(song.getArtistInfo().getName()),
+        escapeCsv(song.getAlbum() != null ? song.getAlbum().getName() : ""),
+        song.getReleaseYear(),
+        song.getDuration(),
+        escapeCsv(convertGenresListToString(song.getGenres())));
+        writer.println(row);
     }
 
     private String escapeCsv(String input) {
@@ -204,7 +292,7 @@ public class SongService {
         return sb.toString();
     }
 
-    private SongInfoDto convertToDetails(Song song){
+    SongInfoDto convertToDetails(Song song){
         return SongInfoDto.builder()
         .id(song.getId())
         .title(song.getTitle())
@@ -216,15 +304,54 @@ public class SongService {
         .build();
     }
 
-    private Song updateFromDto(Song songToUpdate, SaveSongDto saveSongDto){
-        songToUpdate.setAlbum(getAlbumOrNull(saveSongDto.getAlbumId()));
-        songToUpdate.setTitle(saveSongDto.getTitle());
-        songToUpdate.setDuration(saveSongDto.getDuration());
-        songToUpdate.setReleaseYear(saveSongDto.getReleaseYear());
-        songToUpdate.setArtist(artistService.findById(saveSongDto.getArtistId()));
-        songToUpdate.setGenres(genreService.findAllById(saveSongDto.getGenresId()));
+    private static boolean isBlank(String value){
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static Set<UUID> referencesOf(SongInfoDto details){
+        Set<UUID> references = new LinkedHashSet<>();
+        references.add(details.getArtistInfo().getId());
+        if (details.getAlbum() != null) {
+            references.add(details.getAlbum().getId());
+            references.add(details.getAlbum().getArtist().getId());
+        }
+        details.getGenres().forEach(genre -> references.add(genre.getId()));
+        return references;
+    }
 
-        return songToUpdate;
+    private void applyPatch(Song songToUpdate, PatchSongDto patchSongDto){
+        if (patchSongDto.getTitle() != null) {
+            songToUpdate.setTitle(patchSongDto.getTitle());
+        }
+        if (patchSongDto.getReleaseYear() != null) {
+            songToUpdate.setReleaseYear(patchSongDto.getReleaseYear());
+        }
+        if (patchSongDto.getDuration() != null) {
+            songToUpdate.setDuration(patchSongDto.getDuration());
+        }
+        // the ids of the lazy associations are read from their proxies, which does not load them
+        UUID albumId = patchSongDto.getAlbumId();
+        if (albumId != null && (songToUpdate.getAlbum() == null || !albumId.equals(songToUpdate.getAlbum().getId()))) {
+            songToUpdate.setAlbum(albumService.findById(albumId));
+        }
+        UUID artistId = patchSongDto.getArtistId();
+        if (artistId != null && !artistId.equals(songToUpdate.getArtist().getId())) {
+            songToUpdate.setArtist(artistService.findById(artistId));
+        }
+        if (patchSongDto.getGenresId() != null) {
+            genreService.checkExist(patchSongDto.getGenresId());
+            songRepository.replaceGenres(songToUpdate.getId(), patchSongDto.getGenresId());
+        }
+    }
+
+    private Song convertToEntity(SaveSongDto saveSongDto){
+        return Song.builder().title(saveSongDto.getTitle())
+        .album(getAlbumOrNull(saveSongDto.getAlbumId()))
+        .artist(artistService.findById(saveSongDto.getArtistId()))
+        .duration(saveSongDto.getDuration())
+        .releaseYear(saveSongDto.getReleaseYear())
+        .genres(genreService.findAllById(saveSongDto.getGenresId()))
+        .build();
     }
 
     private Album getAlbumOrNull(UUID albumId){
@@ -0,0 +1,236 @@
+package com.example.task2.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.exception.custom.FileUploadProcessingException;
+import com.example.task2.exception.custom.InvalidRecordException;
+import com.example.task2.repository.SongImportRepository.ImportRecord;
+import com.example.task2.service.SongReferenceResolver.MissingReference;
+import com.example.task2.service.UploadProgress.Checkpoint;
+import com.example.task2.service.UploadRejectionService.RejectionWriter;
+
+/**
+ * Runs one upload as three stages connected by bounded queues: a parser reading chunks of records,
+ * several workers validating the records and resolving their references, and a writer persisting the
+ * validated chunks. The writer is the calling thread, so chunk transactions behave exactly as in the
+ * sequential upload. A full queue blocks the stage feeding it, so a slow database throttles parsing
+ * instead of letting parsed chunks pile up in memory.
+ * <p>
+ * Validated chunks may reach the writer out of order, so the checkpoint only advances over the ranges of
+ * the file whose chunks have all been written. The live failure count is updated by the parser and the workers
+ * as they go and may already include records past the checkpoint; the counts stored with the checkpoint are
+ * those of its ranges only.
+ */
+final class SongUploadPipeline {
+
+    // compared by identity: marks the end of the input on both queues
+    private static final Chunk END = new Chunk(-1, -1, List.of());
+
+    private static final long POLL_MILLIS = 100;
+
+    private final SongRecordReader records;
+    private final long firstIndex;
+    private final SongRecordValidator validator;
+    private final SongReferenceResolver references;
+    private final UploadProgress progress;
+    private final int chunkSize;
+    private final int workers;
+
+    private final RejectionWriter rejections;
+
+    private final BlockingQueue<Chunk> parsed;
+    private final BlockingQueue<Chunk> validated;
+    private final AtomicInteger runningWorkers;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    SongUploadPipeline(SongRecordReader records,
+            long firstIndex,
+            SongRecordValidator validator,
+            SongReferenceResolver references,
+            UploadProgress progress,
+            RejectionWriter rejections,
+            int chunkSize,
+            int workers,
+            int queueCapacity) {
+        this.records = records;
+        this.firstIndex = firstIndex;
+        this.validator = validator;
+        this.references = references;
+        this.progress = progress;
+        this.rejections = rejections;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.parsed = new ArrayBlockingQueue<>(queueCapacity);
+        this.validated = new ArrayBlockingQueue<>(queueCapacity);
+        this.runningWorkers = new AtomicInteger(workers);
+    }
+
+    /**
+     * Starts the parser and the workers on {@code executor} and hands every validated chunk to {@code writer}
+     * on the calling thread. Returns once the whole file is written; if any stage fails, the others are
+     * interrupted and the failure is rethrown here.
+     */
+    void run(AsyncTaskExecutor executor, Consumer<List<ImportRecord>> writer) throws IOException {
+        List<Future<?>> stages = new ArrayList<>(workers + 1);
+        try {
+            stages.add(executor.submit(stage(this::parse)));
+            for (int i = 0; i < workers; i++) {
+                stages.add(executor.submit(stage(this::validate)));
+            }
+
+            // written ranges of the file not yet joined to the checkpoint, by their first index
+            TreeMap<Long, WrittenRange> written = new TreeMap<>();
+            Checkpoint checkpoint = progress.getCheckpoint();
+            while (true) {
+                Chunk chunk = validated.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                rethrowFailure();
+                if (chunk == END) {
+                    return;
+                }
+                if (chunk != null) {
+                    progress.checkNotCancelled();
+                    // only the writer stores songs, so the difference is what this chunk stored
+                    long succeededBefore = progress.getSucceeded();
+                    if (!chunk.records().isEmpty()) {
+                        writer.accept(chunk.records());
+                    }
+                    written.put(chunk.from(), new WrittenRange(chunk.to(), progress.getSucceeded() - succeededBefore));
+                    WrittenRange next;
+                    while ((next = written.remove(checkpoint.records())) != null) {
+                        // every record of the range that was not stored was rejected on the way
+                        long failed = next.to() - checkpoint.records() - next.succeeded();
+                        checkpoint = new Checkpoint(next.to(), checkpoint.succeeded() + next.succeeded(),
+                            checkpoint.failed() + failed);
+                    }
+                    progress.recordCheckpoint(checkpoint);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileUploadProcessingException("Upload was interrupted.");
+        } finally {
+            stages.forEach(stage -> stage.cancel(true));
+        }
+    }
+
+    private void parse() throws IOException, InterruptedException {
+        List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+        long index = firstIndex;
+        long chunkStart = index;
+        while (records.hasNext()) {
+            progress.checkNotCancelled();
+            progress.recordProcessed();
+            long current = index++;
+
+            try {
+                chunk.add(new ImportRecord(current, records.next()));
+                if (chunk.size() == chunkSize) {
+                    parsed.put(new Chunk(chunkStart, index, chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkStart = index;
+                }
+            } catch (InvalidRecordException e) {
+                progress.recordFailed(1);
+                rejections.reject(current, e.getReason(), e.getIds());
+            }
+        }
+        if (index > chunkStart) {
+            // sent even when every record failed to parse, so the checkpoint moves past them
+            parsed.put(new Chunk(chunkStart, index, chunk));
+        }
+        parsed.put(END);
+    }
+
+    /**
+     * Rejects records that break the constraints of {@link SaveSongDto} or point to missing rows, so the writer
+     * only receives chunks that should insert cleanly. The ids found here are cached in the shared resolver,
+     * which lets the writer build its entities without querying again.
+     */
+    private void validate() throws InterruptedException {
+        while (true) {
+            Chunk chunk = parsed.take();
+            if (chunk == END) {
+                // leave the marker for the other workers; the last one to stop tells the writer
+                parsed.put(END);
+                if (runningWorkers.decrementAndGet() == 0) {
+                    validated.put(END);
+                }
+                return;
+            }
+
+            List<SaveSongDto> songs = new ArrayList<>(chunk.records().size());
+            for (ImportRecord record : chunk.records()) {
+                songs.add(record.song());
+            }
+            references.preload(songs);
+
+            List<ImportRecord> valid = new ArrayList<>(chunk.records().size());
+            for (ImportRecord record : chunk.records()) {
+                if (!validator.validate(record, rejections)) {
+                    progress.recordFailed(1);
+                    continue;
+                }
+                MissingReference missing = references.findMissing(record.song());
+                if (missing != null) {
+                    progress.recordFailed(1);
+                    rejections.reject(record.index(), missing.reason(), missing.ids());
+                    continue;
+                }
+                valid.add(record);
+            }
+            // forwarded even when empty, the writer needs every range to advance the checkpoint
+            validated.put(new Chunk(chunk.from(), chunk.to(), valid));
+        }
+    }
+
+    private Runnable stage(Stage stage) {
+        return () -> {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                // stopped by the writer, which already knows why
+            } catch (IOException e) {
+                failure.compareAndSet(null, new UncheckedIOException(e));
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        };
+    }
+
+    private void rethrowFailure() throws IOException {
+        RuntimeException stageFailure = failure.get();
+        if (stageFailure instanceof UncheckedIOException ioFailure) {
+            throw ioFailure.getCause();
+        }
+        if (stageFailure != null) {
+            throw stageFailure;
+        }
+    }
+
+    /** The records read from indexes {@code from} (inclusive) to {@code to} (exclusive) that are still in play. */
+    private record Chunk(long from, long to, List<ImportRecord> records) {
+    }
+
+    /** A written chunk that ends before index {@code to} and stored {@code succeeded} of its records. */
+    private record WrittenRange(long to, long succeeded) {
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws IOException, InterruptedException;
+    }
+}
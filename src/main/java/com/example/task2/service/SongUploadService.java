@@ -0,0 +1,446 @@
+package com.example.task2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.task2.config.AsyncConfig;
+import com.example.task2.dto.FileUploadResultDto;
+import com.example.task2.dto.SaveSongDto;
+import com.example.task2.dto.UploadFormat;
+import com.example.task2.dto.UploadMode;
+import com.example.task2.exception.custom.FileUploadProcessingException;
+import com.example.task2.exception.custom.InvalidFileFormatException;
+import com.example.task2.exception.custom.InvalidRecordException;
+import com.example.task2.exception.custom.UploadCancelledException;
+import com.example.task2.model.Song;
+import com.example.task2.model.SongImportKeys;
+import com.example.task2.repository.AlbumRepository;
+import com.example.task2.repository.ArtistRepository;
+import com.example.task2.repository.SongImportRepository.ImportRecord;
+import com.example.task2.repository.SongRepository;
+import com.example.task2.service.SongReferenceResolver.MissingReference;
+import com.example.task2.service.UploadRejectionService.RejectionFile;
+import com.example.task2.service.UploadRejectionService.RejectionWriter;
+import com.google.gson.Gson;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validator;
+
+@Service
+public class SongUploadService {
+
+    private static final int MAX_CHUNK_SIZE = 10_000;
+
+    /** Reason code of records that passed all checks but were refused by a database constraint. */
+    private static final String REJECTED_BY_DATABASE = "REJECTED_BY_DATABASE";
+
+    /** Reason code of records overwritten by a later record of the same chunk (in COPY, the same file) with the same import key. */
+    private static final String DUPLICATE_IMPORT_KEY = "DUPLICATE_IMPORT_KEY";
+
+    public static final String SUCCESSFUL_RECORDS_TRAILER = "X-Successful-Records";
+    public static final String FAILED_RECORDS_TRAILER = "X-Failed-Records";
+
+    private final SongRepository songRepository;
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final GenreRegistry genreRegistry;
+    private final SongDetailsCache songDetailsCache;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UploadRejectionService uploadRejectionService;
+    private final Gson gson;
+    private final SongRecordValidator recordValidator;
+    private final AsyncTaskExecutor pipelineExecutor;
+    private final int defaultChunkSize;
+    private final int pipelineWorkers;
+    private final int pipelineQueueCapacity;
+
+    public SongUploadService(SongRepository songRepository,
+            ArtistRepository artistRepository,
+            AlbumRepository albumRepository,
+            GenreRegistry genreRegistry,
+            SongDetailsCache songDetailsCache,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            UploadRejectionService uploadRejectionService,
+            Gson gson,
+            Validator validator,
+            @Qualifier(AsyncConfig.UPLOAD_PIPELINE_EXECUTOR) AsyncTaskExecutor pipelineExecutor,
+            @Value("${song.upload.chunk-size}") int defaultChunkSize,
+            @Value("${song.upload.pipeline.workers}") int pipelineWorkers,
+            @Value("${song.upload.pipeline.queue-capacity}") int pipelineQueueCapacity) {
+        this.songRepository = songRepository;
+        this.artistRepository = artistRepository;
+        this.albumRepository = albumRepository;
+        this.genreRegistry = genreRegistry;
+        this.songDetailsCache = songDetailsCache;
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadRejectionService = uploadRejectionService;
+        this.gson = gson;
+        this.recordValidator = new SongRecordValidator(validator);
+        this.pipelineExecutor = pipelineExecutor;
+        this.defaultChunkSize = defaultChunkSize;
+        // 0 = one validation worker per core
+        this.pipelineWorkers = pipelineWorkers > 0 ? pipelineWorkers : Runtime.getRuntime().availableProcessors();
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    public FileUploadResultDto uploadFromFile(MultipartFile multipartFile, UploadMode mode, Integer chunkSize) {
+        
+        UploadFormat format = resolveFormat(multipartFile.getOriginalFilename());
+
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            return upload(inputStream, format, mode, chunkSize, new UploadProgress());
+        } catch (IOException e) {
+            throw new FileUploadProcessingException("File reading error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams the rejections into the response while the file is imported, instead of keeping them in a file.
+     * The response is the CSV of the rejected-rows file; the totals follow as HTTP trailer fields.
+     */
+    public void uploadFromFile(MultipartFile multipartFile, UploadMode mode, Integer chunkSize,
+            HttpServletResponse response) throws IOException {
+
+        UploadFormat format = resolveFormat(multipartFile.getOriginalFilename());
+        UploadProgress progress = new UploadProgress();
+
+        response.setStatus(HttpServletResponse.SC_CREATED);
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Trailer", SUCCESSFUL_RECORDS_TRAILER + ", " + FAILED_RECORDS_TRAILER);
+        response.setTrailerFields(() -> Map.of(
+            SUCCESSFUL_RECORDS_TRAILER, Long.toString(progress.getSucceeded()),
+            FAILED_RECORDS_TRAILER, Long.toString(progress.getFailed())));
+
+        try (InputStream inputStream = multipartFile.getInputStream();
+            RejectionWriter rejections = uploadRejectionService.stream(response.getOutputStream())) {
+            upload(inputStream, format, mode, chunkSize, progress, rejections);
+        }
+    }
+
+    public UploadFormat resolveFormat(String fileName) {
+        UploadFormat format = UploadFormat.fromFileName(fileName);
+        if (format == null) {
+            throw new InvalidFileFormatException("Only JSON, NDJSON and CSV files (optionally gzip-compressed) are supported.");
+        }
+        return format;
+    }
+
+    /**
+     * Imports the songs of a file, writing the rejected records to a new rejected-rows file whose id is returned
+     * with the totals.
+     */
+    private FileUploadResultDto upload(InputStream inputStream, UploadFormat format, UploadMode mode, Integer chunkSize,
+            UploadProgress progress) throws IOException {
+        try (RejectionFile rejectionFile = uploadRejectionService.create()) {
+            FileUploadResultDto result = upload(inputStream, format, mode, chunkSize, progress, rejectionFile);
+            return new FileUploadResultDto(result.getSuccessfulRecords(), result.getFailedRecords(), rejectionFile.getId());
+        }
+    }
+
+    /**
+     * Imports the songs of a file in the given format, reporting into {@code progress} as it goes and writing
+     * the rejected records to {@code rejections}.
+     * Except in {@link UploadMode#COPY}, the first {@link UploadProgress#getResumeFrom()} records are skipped,
+     * and a checkpoint is recorded after every committed chunk.
+     *
+     * @throws UploadCancelledException if {@code progress} was cancelled; chunks committed before that are kept
+     */
+    public FileUploadResultDto upload(InputStream inputStream, UploadFormat format, UploadMode mode, Integer chunkSize,
+            UploadProgress progress, RejectionWriter rejections) {
+
+        int effectiveChunkSize = mode == UploadMode.PER_RECORD ? 1 : resolveChunkSize(chunkSize);
+        SongReferenceResolver references = newReferenceResolver();
+        List<ImportRecord> chunk = new ArrayList<>(effectiveChunkSize);
+
+        try (SongRecordReader records = SongRecordReader.open(inputStream, format, gson, newNameResolver())) {
+
+            if (mode == UploadMode.COPY) {
+                return importWithCopy(records, progress, rejections);
+            }
+            long index = skipHandledRecords(records, progress);
+            if (mode == UploadMode.PIPELINED) {
+                return importPipelined(records, index, effectiveChunkSize, references, progress, rejections);
+            }
+            while (records.hasNext()) {
+                progress.checkNotCancelled();
+                progress.recordProcessed();
+                long current = index++;
+                
+                try {
+                    ImportRecord record = new ImportRecord(current, records.next());
+                    if (!recordValidator.validate(record, rejections)) {
+                        progress.recordFailed(1);
+                        continue;
+                    }
+                    chunk.add(record);
+                    if (chunk.size() == effectiveChunkSize) {
+                        persist(chunk, references, progress, rejections);
+                        progress.recordCheckpoint(current + 1);
+                    }
+                    
+                } catch (InvalidRecordException e) {
+                    progress.recordFailed(1);
+                    rejections.reject(current, e.getReason(), e.getIds());
+                } 
+            }
+            persist(chunk, references, progress, rejections);
+            progress.recordCheckpoint(index);
+
+            return new FileUploadResultDto((int) progress.getSucceeded(), (int) progress.getFailed());
+
+        } catch (IOException e) {
+            throw new FileUploadProcessingException("File reading error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Feeds the parsed records straight into {@code COPY} while the file is being read, so neither the records
+     * nor the file are held in memory. The whole import is one transaction: it is either merged completely or not at all.
+     */
+    private FileUploadResultDto importWithCopy(SongRecordReader records, UploadProgress progress,
+            RejectionWriter rejections) throws IOException {
+        RecordIterator iterator = new RecordIterator(records, recordValidator, rejections, progress);
+        RejectedRecordCounter rejected = new RejectedRecordCounter();
+
+        long imported;
+        try {
+            imported = transactionTemplate.execute(status -> {
+                // which songs the upsert overwrote is not known here
+                songDetailsCache.evictAll();
+                return songRepository.importSongs(iterator, rejection -> {
+                    rejected.count(rejection.index());
+                    rejections.reject(rejection.index(), rejection.reason(), rejection.ids());
+                });
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        progress.recordSucceeded(imported);
+        progress.recordFailed(iterator.failed + rejected.records);
+        return new FileUploadResultDto((int) imported, iterator.failed + rejected.records);
+    }
+
+    /**
+     * Moves past the records an interrupted run already handled.
+     *
+     * @return the index of the first record to import
+     */
+    private static long skipHandledRecords(SongRecordReader records, UploadProgress progress) throws IOException {
+        long index = 0;
+        while (index < progress.getResumeFrom() && records.hasNext()) {
+            records.skip();
+            index++;
+        }
+        return index;
+    }
+
+    private FileUploadResultDto importPipelined(SongRecordReader records, long firstIndex, int chunkSize,
+            SongReferenceResolver references, UploadProgress progress, RejectionWriter rejections) throws IOException {
+        SongUploadPipeline pipeline = new SongUploadPipeline(records, firstIndex, recordValidator, references, progress,
+            rejections, chunkSize, pipelineWorkers, pipelineQueueCapacity);
+        pipeline.run(pipelineExecutor, chunk -> saveChunk(chunk, references, progress, rejections));
+        return new FileUploadResultDto((int) progress.getSucceeded(), (int) progress.getFailed());
+    }
+
+    private SongReferenceResolver newReferenceResolver() {
+        return new SongReferenceResolver(artistRepository, albumRepository, genreRegistry, entityManager);
+    }
+
+    private SongNameResolver newNameResolver() {
+        return new SongNameResolver(artistRepository, albumRepository, genreRegistry, transactionManager);
+    }
+
+    private int resolveChunkSize(Integer chunkSize) {
+        if (chunkSize == null) {
+            return defaultChunkSize;
+        }
+        return Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+    }
+
+    private void persist(List<ImportRecord> chunk, SongReferenceResolver references,
+            UploadProgress progress, RejectionWriter rejections) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        saveChunk(chunk, references, progress, rejections);
+        chunk.clear();
+    }
+
+    /**
+     * Saves the whole chunk in one transaction. References of the chunk are resolved in bulk and records
+     * pointing to missing rows are rejected up front. A record whose import key already belongs to a song
+     * updates that song, so uploading a file again, or resuming it behind its last checkpoint, adds no duplicates;
+     * of two records of the chunk with the same key, the earlier one is rejected as {@value #DUPLICATE_IMPORT_KEY}
+     * with the index of the later one. Keys are not compared across chunks: a record whose key comes again in a
+     * later chunk counts as succeeded, and the later record updates the song it stored. If the database rejects
+     * the chunk at flush time, the transaction is rolled back and the chunk is split in halves and retried, so
+     * a bad record is isolated in a logarithmic number of transactions and never costs its neighbours.
+     */
+    private void saveChunk(List<ImportRecord> chunk, SongReferenceResolver references, UploadProgress progress,
+            RejectionWriter rejections) {
+        List<ImportRecord> resolved = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                references.preload(songsOf(chunk));
+                // the same key twice in one chunk: the later record wins, as in the COPY import, and the
+                // earlier one is rejected, as it is never written
+                Map<String, ImportRecord> recordsByKey = new LinkedHashMap<>();
+                for (ImportRecord record : chunk) {
+                    MissingReference missing = references.findMissing(record.song());
+                    if (missing != null) {
+                        rejections.reject(record.index(), missing.reason(), missing.ids());
+                        continue;
+                    }
+                    ImportRecord overwritten = recordsByKey.put(SongImportKeys.of(record.song()), record);
+                    if (overwritten != null) {
+                        rejections.reject(overwritten.index(), DUPLICATE_IMPORT_KEY, String.valueOf(record.index()));
+                    }
+                }
+                resolved.addAll(recordsByKey.values());
+
+                Map<String, Song> existing = new HashMap<>();
+                for (Song song : songRepository.findByImportKeyIn(recordsByKey.keySet())) {
+                    existing.put(song.getImportKey(), song);
+                }
+                List<Song> songs = new ArrayList<>(recordsByKey.size());
+                recordsByKey.forEach((key, record) -> {
+                    Song song = references.toEntity(record.song());
+                    Song stored = existing.get(key);
+                    if (stored == null) {
+                        song.setImportKey(key);
+                        songs.add(song);
+                    } else {
+                        stored.setTitle(song.getTitle());
+                        stored.setArtist(song.getArtist());
+                        stored.setAlbum(song.getAlbum());
+                        stored.setReleaseYear(song.getReleaseYear());
+                        stored.setDuration(song.getDuration());
+                        stored.setGenres(song.getGenres());
+                        songDetailsCache.evict(stored.getId());
+                    }
+                });
+                songRepository.saveAll(songs);
+                songRepository.flush();
+            });
+            progress.recordSucceeded(resolved.size());
+            progress.recordFailed(chunk.size() - resolved.size());
+        } catch (DataIntegrityViolationException chunkEx) {
+            progress.recordFailed(chunk.size() - resolved.size());
+            if (resolved.size() == 1) {
+                progress.recordFailed(1);
+                rejections.reject(resolved.get(0).index(), REJECTED_BY_DATABASE, null);
+                return;
+            }
+            // the session outlives the transaction (open-in-view), drop the rolled back entities before retrying
+            entityManager.clear();
+            int middle = resolved.size() / 2;
+            saveChunk(resolved.subList(0, middle), references, progress, rejections);
+            saveChunk(resolved.subList(middle, resolved.size()), references, progress, rejections);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private static List<SaveSongDto> songsOf(List<ImportRecord> records) {
+        List<SaveSongDto> songs = new ArrayList<>(records.size());
+        for (ImportRecord record : records) {
+            songs.add(record.song());
+        }
+        return songs;
+    }
+
+    /**
+     * Reads records on demand. Records that cannot be read or break the constraints of {@link SaveSongDto}
+     * are rejected and skipped, the same way the chunked loop skips them.
+     */
+    private static final class RecordIterator implements Iterator<ImportRecord> {
+
+        private final SongRecordReader records;
+        private final SongRecordValidator validator;
+        private final RejectionWriter rejections;
+        private final UploadProgress progress;
+        private long index;
+        private ImportRecord next;
+        private int failed;
+
+        private RecordIterator(SongRecordReader records, SongRecordValidator validator, RejectionWriter rejections,
+                UploadProgress progress) {
+            this.records = records;
+            this.validator = validator;
+            this.rejections = rejections;
+            this.progress = progress;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && records.hasNext()) {
+                    progress.checkNotCancelled();
+                    progress.recordProcessed();
+                    long current = index++;
+                    try {
+                        ImportRecord record = new ImportRecord(current, records.next());
+                        if (validator.validate(record, rejections)) {
+                            next = record;
+                        } else {
+                            failed++;
+                        }
+                    } catch (InvalidRecordException e) {
+                        failed++;
+                        rejections.reject(current, e.getReason(), e.getIds());
+                    }
+                }
+                return next != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ImportRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ImportRecord record = next;
+            next = null;
+            return record;
+        }
+    }
+
+    private static final class RejectedRecordCounter {
+        private long lastIndex = -1;
+        private int records;
+
+        // rejections arrive ordered by record, possibly several per record
+        private void count(long index) {
+            if (index != lastIndex) {
+                records++;
+                lastIndex = index;
+            }
+        }
+    }
+}
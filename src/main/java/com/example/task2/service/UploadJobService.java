@@ -0,0 +1,429 @@
+package com.example.task2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.DirectoryStream;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.task2.config.AsyncConfig;
+import com.example.task2.dto.UploadJobDto;
+import com.example.task2.dto.UploadFormat;
+import com.example.task2.dto.UploadMode;
+import com.example.task2.exception.custom.FileUploadProcessingException;
+import com.example.task2.exception.custom.ResourceNotFoundException;
+import com.example.task2.exception.custom.UploadCancelledException;
+import com.example.task2.exception.custom.UploadJobStateException;
+import com.example.task2.model.UploadJob;
+import com.example.task2.model.UploadJobStatus;
+import com.example.task2.repository.UploadJobRepository;
+import com.example.task2.service.UploadProgress.Checkpoint;
+import com.example.task2.service.UploadRejectionService.RejectionFile;
+
+/**
+ * Runs song uploads in the background. The uploaded file is spooled to local disk, then imported on a virtual
+ * thread once one of the {@code song.upload.jobs.max-concurrent} permits is free. Live progress is kept in memory
+ * while a job runs; the final counts are stored with the job.
+ * <p>
+ * After every committed chunk the job stores a checkpoint. A job interrupted by a restart is resumed from its
+ * checkpoint when the application starts again, and a failed or cancelled job can be resumed on request. The
+ * spooled file is kept until the job completes, or until {@code song.upload.jobs.ttl} has passed since a failed or
+ * cancelled job ended. Songs are matched by their import key, so records between the checkpoint and the point of
+ * interruption are updated, not duplicated; a resumed run continues the counts and the rejected-rows file of
+ * the checkpoint.
+ */
+@Service
+public class UploadJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadJobService.class);
+
+    private static final Set<UploadJobStatus> ACTIVE_STATUSES =
+        EnumSet.of(UploadJobStatus.PENDING, UploadJobStatus.RUNNING);
+
+    private static final Set<UploadJobStatus> RESUMABLE_STATUSES =
+        EnumSet.of(UploadJobStatus.FAILED, UploadJobStatus.CANCELLED);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final UploadJobRepository uploadJobRepository;
+    private final SongUploadService songUploadService;
+    private final UploadRejectionService uploadRejectionService;
+    private final TaskExecutor uploadJobExecutor;
+    private final Path directory;
+    private final Duration ttl;
+    private final Semaphore permits;
+    private final Map<UUID, UploadProgress> activeJobs = new ConcurrentHashMap<>();
+
+    public UploadJobService(UploadJobRepository uploadJobRepository,
+            SongUploadService songUploadService,
+            UploadRejectionService uploadRejectionService,
+            @Qualifier(AsyncConfig.UPLOAD_JOB_EXECUTOR) TaskExecutor uploadJobExecutor,
+            @Value("${song.upload.jobs.directory}") Path directory,
+            @Value("${song.upload.jobs.max-concurrent}") int maxConcurrent,
+            @Value("${song.upload.jobs.ttl}") Duration ttl) {
+        this.uploadJobRepository = uploadJobRepository;
+        this.songUploadService = songUploadService;
+        this.uploadRejectionService = uploadRejectionService;
+        this.uploadJobExecutor = uploadJobExecutor;
+        this.directory = directory;
+        this.ttl = ttl;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public UploadJobDto submit(MultipartFile multipartFile, UploadMode mode, Integer chunkSize) {
+        songUploadService.resolveFormat(multipartFile.getOriginalFilename());
+
+        UploadJob job = uploadJobRepository.save(UploadJob.builder()
+            .status(UploadJobStatus.PENDING)
+            .mode(mode)
+            .chunkSize(chunkSize)
+            .fileName(multipartFile.getOriginalFilename())
+            .createdAt(Instant.now())
+            .build());
+
+        Path file = spoolFile(job.getId());
+        try {
+            job.setFileSha256(spool(multipartFile, file));
+        } catch (IOException e) {
+            fail(job, "File reading error: " + e.getMessage());
+            throw new FileUploadProcessingException("File reading error: " + e.getMessage());
+        }
+        uploadJobRepository.save(job);
+
+        return start(job, file);
+    }
+
+    /**
+     * Restarts a failed or cancelled job from its last checkpoint. Without a file, the file kept from the
+     * first submission is used; a file given here must be identical to it. Synchronized, so that of two
+     * concurrent requests only the first one starts the job and the file cannot expire meanwhile.
+     */
+    public synchronized UploadJobDto resume(UUID id, MultipartFile multipartFile) {
+        UploadJob job = findById(id);
+        if (!RESUMABLE_STATUSES.contains(job.getStatus()) || activeJobs.containsKey(id)) {
+            throw new UploadJobStateException("Only failed or cancelled upload jobs can be resumed, job " + id
+                + " is " + job.getStatus() + ".");
+        }
+
+        Path file = spoolFile(id);
+        if (multipartFile != null && !multipartFile.isEmpty()) {
+            Path received = directory.resolve(id + ".resume");
+            try {
+                String sha256 = spool(multipartFile, received);
+                if (!sha256.equals(job.getFileSha256())) {
+                    throw new UploadJobStateException("The file differs from the one upload job " + id + " was started with.");
+                }
+                Files.move(received, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new FileUploadProcessingException("File reading error: " + e.getMessage());
+            } finally {
+                deleteQuietly(received);
+            }
+        } else if (!Files.exists(file)) {
+            throw new UploadJobStateException("The file of upload job " + id + " is no longer kept, resume it with the file.");
+        }
+
+        job.setStatus(UploadJobStatus.PENDING);
+        job.setErrorMessage(null);
+        job.setCompletedAt(null);
+        uploadJobRepository.save(job);
+        return start(job, file);
+    }
+
+    public UploadJobDto getJob(UUID id) {
+        return convertToDto(findById(id), activeJobs.get(id));
+    }
+
+    /**
+     * Asks a queued or running job to stop. A running job stops after the record or chunk in progress;
+     * chunks that were already committed stay imported. Finished jobs are returned unchanged.
+     */
+    public UploadJobDto cancel(UUID id) {
+        UploadJob job = findById(id);
+        UploadProgress progress = activeJobs.get(id);
+        if (progress != null) {
+            progress.cancel();
+        }
+        return convertToDto(job, progress);
+    }
+
+    /**
+     * Jobs that were still queued or running when the application stopped are queued again from their
+     * checkpoints, as long as their files are still on disk.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (UploadJob job : uploadJobRepository.findByStatusIn(ACTIVE_STATUSES)) {
+            Path file = spoolFile(job.getId());
+            if (Files.exists(file)) {
+                job.setStatus(UploadJobStatus.PENDING);
+                uploadJobRepository.save(job);
+                start(job, file);
+            } else {
+                fail(job, "Interrupted by application restart.");
+            }
+        }
+    }
+
+    /**
+     * Deletes the files of jobs that ended without completing and were not resumed in time. The files of queued
+     * and running jobs are kept however long they wait; a file left without a job expires by its age.
+     */
+    @Scheduled(fixedDelayString = "${song.upload.jobs.cleanup-interval}")
+    public synchronized void deleteExpiredFiles() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant threshold = Instant.now().minus(ttl);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.upload")) {
+            for (Path file : files) {
+                if (isExpired(file, threshold)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up upload files in {}", directory, e);
+        }
+    }
+
+    private boolean isExpired(Path file, Instant threshold) throws IOException {
+        UUID id = jobId(file);
+        if (id != null && activeJobs.containsKey(id)) {
+            return false;
+        }
+        UploadJob job = id == null ? null : uploadJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(threshold);
+        }
+        return isFinished(job.getStatus()) && job.getCompletedAt() != null && job.getCompletedAt().isBefore(threshold);
+    }
+
+    private static UUID jobId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return UUID.fromString(name.substring(0, name.length() - ".upload".length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private UploadJobDto start(UploadJob job, Path file) {
+        UUID id = job.getId();
+        // opened by the run once it has a permit, checkpoints are only recorded after that
+        AtomicReference<RejectionFile> rejections = new AtomicReference<>();
+        // COPY commits nothing before the end, so it always starts over
+        UploadProgress progress = job.getMode() == UploadMode.COPY
+            ? new UploadProgress()
+            : new UploadProgress(
+                new Checkpoint(job.getCheckpointRecords(), job.getCheckpointSuccessfulRecords(), job.getCheckpointFailedRecords()),
+                checkpoint -> saveCheckpoint(id, checkpoint, activeJobs.get(id), rejections.get()));
+        activeJobs.put(id, progress);
+        uploadJobExecutor.execute(() -> run(id, file, progress, rejections));
+        return convertToDto(job, progress);
+    }
+
+    /**
+     * The rejections are flushed first, so that a resumed run finds in the file every rejection before
+     * the checkpoint it resumes from.
+     */
+    private void saveCheckpoint(UUID id, Checkpoint checkpoint, UploadProgress progress, RejectionFile rejections) {
+        rejections.flush();
+        uploadJobRepository.saveCheckpoint(id, checkpoint.records(), checkpoint.succeeded(), checkpoint.failed(),
+            progress.getProcessed(), progress.getSucceeded(), progress.getFailed());
+    }
+
+    private Path spoolFile(UUID id) {
+        return directory.resolve(id + ".upload");
+    }
+
+    /**
+     * Copies the uploaded file to {@code file}.
+     *
+     * @return the SHA-256 of the file as hex
+     */
+    private String spool(MultipartFile multipartFile, Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream inputStream = new DigestInputStream(multipartFile.getInputStream(), digest)) {
+            Files.createDirectories(directory);
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return whether the rejected-rows file was written completely
+     */
+    private static boolean closeQuietly(RejectionFile rejections) {
+        try {
+            rejections.close();
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to write rejected-rows file {}", rejections.getId(), e);
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload file {}", file, e);
+        }
+    }
+
+    private void run(UUID id, Path file, UploadProgress progress, AtomicReference<RejectionFile> openedRejections) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(findById(id), progress, null, UploadJobStatus.FAILED, "Interrupted while waiting to start.");
+            return;
+        }
+
+        UploadJob job = findById(id);
+        RejectionFile rejections = null;
+        try {
+            if (progress.isCancelled()) {
+                finish(job, progress, null, UploadJobStatus.CANCELLED, null);
+                return;
+            }
+            rejections = openRejectionFile(job, progress);
+            openedRejections.set(rejections);
+            job.setStatus(UploadJobStatus.RUNNING);
+            job.setStartedAt(Instant.now());
+            // stored right away, a run interrupted by a restart continues this file
+            job.setRejectedRowsFileId(rejections.getFileId());
+            uploadJobRepository.save(job);
+            progress.markStarted();
+
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                UploadFormat format = songUploadService.resolveFormat(job.getFileName());
+                songUploadService.upload(inputStream, format, job.getMode(), job.getChunkSize(), progress, rejections);
+            }
+            finish(job, progress, rejections, UploadJobStatus.COMPLETED, null);
+            deleteQuietly(file);
+        } catch (UploadCancelledException e) {
+            finish(job, progress, rejections, UploadJobStatus.CANCELLED, null);
+        } catch (IOException | RuntimeException e) {
+            finish(job, progress, rejections, UploadJobStatus.FAILED, "Upload failed: " + e.getMessage());
+        } finally {
+            permits.release();
+            activeJobs.remove(id);
+        }
+    }
+
+    /**
+     * A resumed job goes on with the rejected-rows file of its earlier runs, from the checkpoint it resumes at.
+     */
+    private RejectionFile openRejectionFile(UploadJob job, UploadProgress progress) {
+        return job.getRejectedRowsFileId() == null
+            ? uploadRejectionService.create()
+            : uploadRejectionService.reopen(job.getRejectedRowsFileId(), progress.getResumeFrom());
+    }
+
+    /**
+     * Stores the outcome of a run. The counts of the last checkpoint are stored next to the totals, a resumed
+     * run starts from them; the rejected-rows file is kept whatever the outcome, to be continued on resume.
+     * A file that could not be written completely is flagged on the job, also for the runs after it.
+     */
+    private void finish(UploadJob job, UploadProgress progress, RejectionFile rejections, UploadJobStatus status,
+            String errorMessage) {
+        if (rejections != null) {
+            if (!closeQuietly(rejections)) {
+                job.setRejectedRowsIncomplete(true);
+            }
+            job.setRejectedRowsFileId(rejections.getId());
+        }
+        Checkpoint checkpoint = progress.getCheckpoint();
+        job.setStatus(status);
+        job.setProcessedRecords(progress.getProcessed());
+        job.setSuccessfulRecords(progress.getSucceeded());
+        job.setFailedRecords(progress.getFailed());
+        job.setCheckpointRecords(checkpoint.records());
+        job.setCheckpointSuccessfulRecords(checkpoint.succeeded());
+        job.setCheckpointFailedRecords(checkpoint.failed());
+        job.setCompletedAt(Instant.now());
+        if (errorMessage != null) {
+            job.setErrorMessage(truncate(errorMessage));
+        }
+        uploadJobRepository.save(job);
+    }
+
+    private void fail(UploadJob job, String message) {
+        job.setStatus(UploadJobStatus.FAILED);
+        job.setErrorMessage(truncate(message));
+        job.setCompletedAt(Instant.now());
+        uploadJobRepository.save(job);
+    }
+
+    private UploadJob findById(UUID id) {
+        return uploadJobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Upload job", id));
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * Counts of a job that is still active come from its live progress, otherwise from the stored job.
+     */
+    private UploadJobDto convertToDto(UploadJob job, UploadProgress progress) {
+        boolean live = progress != null && !isFinished(job.getStatus());
+        long processed = live ? progress.getProcessed() : job.getProcessedRecords();
+        double recordsPerSecond = live ? progress.getRecordsPerSecond() : averageRate(job);
+
+        return new UploadJobDto(job.getId(), job.getStatus(), job.getMode(), job.getFileName(),
+            processed,
+            live ? progress.getSucceeded() : job.getSuccessfulRecords(),
+            live ? progress.getFailed() : job.getFailedRecords(),
+            live ? progress.getCheckpoint().records() : job.getCheckpointRecords(),
+            recordsPerSecond,
+            live && progress.isCancelled(),
+            job.getRejectedRowsFileId(), job.isRejectedRowsIncomplete(), job.getErrorMessage(),
+            job.getCreatedAt(), job.getStartedAt(), job.getCompletedAt());
+    }
+
+    private static boolean isFinished(UploadJobStatus status) {
+        return !ACTIVE_STATUSES.contains(status);
+    }
+
+    private static double averageRate(UploadJob job) {
+        if (job.getStartedAt() == null || job.getCompletedAt() == null) {
+            return 0;
+        }
+        long millis = job.getCompletedAt().toEpochMilli() - job.getStartedAt().toEpochMilli();
+        return millis <= 0 ? 0 : job.getProcessedRecords() * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.task2.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.example.task2.exception.custom.UploadCancelledException;
+
+/**
+ * Live counters of one upload. The threads running the upload write them; any thread may read them
+ * or request cancellation, which the upload honours between records and chunks.
+ * <p>
+ * A resumed upload starts from the counters of the last checkpoint of the interrupted run and skips the first
+ * {@link #getResumeFrom()} records of the file. After each chunk is committed, the upload reports the
+ * number of records from the start of the file that are now fully handled, with how many of them were stored
+ * and rejected; the checkpoint listener may persist it so that a later run can resume there.
+ */
+public class UploadProgress {
+
+    private volatile long startedAt = System.nanoTime();
+
+    private final long resumeFrom;
+    private final Consumer<Checkpoint> checkpointListener;
+    private final AtomicLong processed;
+    private final AtomicLong succeeded;
+    private final AtomicLong failed;
+    private volatile Checkpoint checkpoint;
+    private volatile boolean cancelled;
+
+    public UploadProgress() {
+        this(new Checkpoint(0, 0, 0), checkpoint -> {
+        });
+    }
+
+    public UploadProgress(Checkpoint resumeFrom, Consumer<Checkpoint> checkpointListener) {
+        this.resumeFrom = resumeFrom.records();
+        this.checkpointListener = checkpointListener;
+        this.processed = new AtomicLong(resumeFrom.records());
+        this.succeeded = new AtomicLong(resumeFrom.succeeded());
+        this.failed = new AtomicLong(resumeFrom.failed());
+        this.checkpoint = resumeFrom;
+    }
+
+    /** Restarts the throughput clock, e.g. when a queued upload actually begins. */
+    void markStarted() {
+        startedAt = System.nanoTime();
+    }
+
+    void recordProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void recordSucceeded(long count) {
+        succeeded.addAndGet(count);
+    }
+
+    void recordFailed(long count) {
+        failed.addAndGet(count);
+    }
+
+    /**
+     * Marks the first {@code records} records of the file as handled: each of them is either stored or
+     * rejected, and will not be read again when the upload resumes. For uploads that handle the records in
+     * file order, so that the counters so far belong to exactly these records.
+     */
+    void recordCheckpoint(long records) {
+        recordCheckpoint(new Checkpoint(records, succeeded.get(), failed.get()));
+    }
+
+    /**
+     * Marks the first {@code checkpoint.records()} records of the file as handled, of which
+     * {@code checkpoint.succeeded()} were stored and {@code checkpoint.failed()} rejected.
+     */
+    void recordCheckpoint(Checkpoint checkpoint) {
+        if (checkpoint.records() > this.checkpoint.records()) {
+            this.checkpoint = checkpoint;
+            checkpointListener.accept(checkpoint);
+        }
+    }
+
+    void checkNotCancelled() {
+        if (cancelled) {
+            throw new UploadCancelledException("Upload was cancelled.");
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Records read from the file so far, including the ones that failed to parse. */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /** Records skipped at the start of the file because an earlier run already handled them. */
+    public long getResumeFrom() {
+        return resumeFrom;
+    }
+
+    public Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getSucceeded() {
+        return succeeded.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public double getRecordsPerSecond() {
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        return seconds <= 0 ? 0 : (processed.get() - resumeFrom) / seconds;
+    }
+
+    /**
+     * The first {@code records} records of a file are handled: {@code succeeded} of them were stored
+     * and {@code failed} rejected.
+     */
+    public record Checkpoint(long records, long succeeded, long failed) {
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.task2.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.task2.exception.custom.ResourceNotFoundException;
+
+/**
+ * Keeps the rejected-rows files of uploads on local disk until they expire.
+ * A file is a CSV with one line per rejected record and reason: {@code Record,Reason,Ids}.
+ */
+@Service
+public class UploadRejectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadRejectionService.class);
+
+    private static final String HEADER = "Record,Reason,Ids\n";
+
+    private final Path directory;
+    private final Duration ttl;
+
+    public UploadRejectionService(@Value("${song.upload.rejects.directory}") Path directory,
+            @Value("${song.upload.rejects.ttl}") Duration ttl) {
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    public RejectionFile create() {
+        return create(UUID.randomUUID());
+    }
+
+    /**
+     * Reopens the rejected-rows file of an interrupted upload to append the rejections of the resumed run.
+     * Lines of records from index {@code records} on are dropped first, as the resumed run reads those records
+     * again. A file that has expired meanwhile is started anew under the same id.
+     */
+    public RejectionFile reopen(UUID id, long records) {
+        Path path = directory.resolve(id + ".csv");
+        if (!Files.isRegularFile(path)) {
+            return create(id);
+        }
+        Path kept = directory.resolve(id + ".csv.part");
+        long rejections = 0;
+        try {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                Writer writer = Files.newBufferedWriter(kept, StandardCharsets.UTF_8)) {
+                reader.readLine();
+                writer.append(HEADER);
+                boolean keep = false;
+                boolean quoted = false;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // a quoted value may span lines, only a line outside of one starts a new rejection
+                    if (!quoted) {
+                        keep = Long.parseLong(line.substring(0, line.indexOf(','))) < records;
+                        if (keep) {
+                            rejections++;
+                        }
+                    }
+                    if (keep) {
+                        writer.append(line).append('\n');
+                    }
+                    quoted ^= line.chars().filter(c -> c == '"').count() % 2 == 1;
+                }
+            }
+            if (rejections == 0) {
+                Files.delete(kept);
+                Files.delete(path);
+                return create(id);
+            }
+            Files.move(kept, path, StandardCopyOption.REPLACE_EXISTING);
+            Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            return new RejectionFile(id, path, writer, rejections);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RejectionFile create(UUID id) {
+        Path path = directory.resolve(id + ".csv");
+        try {
+            Files.createDirectories(directory);
+            Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+            return new RejectionFile(id, path, writer, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes rejections to {@code outputStream} as they happen, e.g. straight into a response.
+     */
+    public RejectionWriter stream(OutputStream outputStream) {
+        return new RejectionWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    public Resource getRejectionFile(UUID id) {
+        Path path = directory.resolve(id + ".csv");
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Rejection file", id);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Scheduled(fixedDelayString = "${song.upload.rejects.cleanup-interval}")
+    public void deleteExpiredFiles() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant threshold = Instant.now().minus(ttl);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(threshold)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up rejection files in {}", directory, e);
+        }
+    }
+
+    /**
+     * Rejections of one upload as CSV. Lines are assembled in a reusable buffer and written in large blocks,
+     * so rejecting a record costs no more than appending a few characters; it is safe to call from several
+     * threads of the same upload.
+     */
+    public static class RejectionWriter implements Closeable {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final Writer writer;
+        private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 256);
+        private long rejections;
+
+        private RejectionWriter(Writer writer) {
+            this(writer, 0);
+        }
+
+        /**
+         * @param rejections lines already in the file behind {@code writer}; the header is written only if it is empty
+         */
+        private RejectionWriter(Writer writer, long rejections) {
+            this.writer = writer;
+            this.rejections = rejections;
+            if (rejections == 0) {
+                buffer.append(HEADER);
+            }
+        }
+
+        /**
+         * @param record position of the record in the uploaded file, starting at 0
+         * @param reason reason code, e.g. {@code MISSING_ARTIST}
+         * @param ids offending values, or {@code null}
+         */
+        public synchronized void reject(long record, String reason, String ids) {
+            buffer.append(record).append(',').append(reason).append(',');
+            if (ids != null) {
+                appendEscaped(ids);
+            }
+            buffer.append('\n');
+            rejections++;
+            if (buffer.length() >= BUFFER_SIZE) {
+                flushBuffer();
+            }
+        }
+
+        public synchronized long getRejections() {
+            return rejections;
+        }
+
+        /** Writes the rejections buffered so far through to the underlying writer. */
+        public synchronized void flush() {
+            flushBuffer();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                flushBuffer();
+            } finally {
+                writer.close();
+            }
+        }
+
+        private void appendEscaped(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                buffer.append(value);
+                return;
+            }
+            buffer.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        }
+
+        private void flushBuffer() {
+            try {
+                writer.append(buffer);
+                writer.flush();
+                buffer.setLength(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Rejections of one upload kept as a downloadable file. The file is removed on close if nothing was rejected.
+     */
+    public static final class RejectionFile extends RejectionWriter {
+
+        private final UUID id;
+        private final Path path;
+
+        private RejectionFile(UUID id, Path path, Writer writer, long rejections) {
+            super(writer, rejections);
+            this.id = id;
+            this.path = path;
+        }
+
+        /**
+         * @return the id the file is kept under, also while nothing is rejected yet
+         */
+        public UUID getFileId() {
+            return id;
+        }
+
+        /**
+         * @return the id to download the file with, or {@code null} if nothing was rejected
+         */
+        public UUID getId() {
+            return getRejections() == 0 ? null : id;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            super.close();
+            if (getRejections() == 0) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
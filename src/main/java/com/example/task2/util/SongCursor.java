@@ -0,0 +1,119 @@
+package com.example.task2.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import com.example.task2.exception.custom.InvalidCursorException;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opaque continuation token for keyset pagination over songs.
+ * The token carries the sort order and the last seen values of every sort key (always ending with {@code id}),
+ * so the next page is resolved with a seek predicate instead of OFFSET and no count query is needed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SongCursor {
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("title", "releaseYear", "duration", "id");
+    private static final Gson GSON = new Gson();
+
+    private final Sort sort;
+    private final ScrollPosition position;
+
+    public static SongCursor decode(String token, Sort requestedSort) {
+        if (token == null || token.isBlank()) {
+            return new SongCursor(withTieBreaker(requestedSort), ScrollPosition.keyset());
+        }
+
+        Payload payload;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            payload = GSON.fromJson(json, Payload.class);
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new InvalidCursorException("Malformed cursor.");
+        }
+        if (payload == null || payload.sort() == null || payload.keys() == null) {
+            throw new InvalidCursorException("Malformed cursor.");
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String order : payload.sort()) {
+            String[] parts = order.split(",");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Malformed cursor.");
+            }
+            try {
+                orders.add(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException("Malformed cursor.");
+            }
+        }
+        Sort sort = withTieBreaker(Sort.by(orders));
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            String value = payload.keys().get(order.getProperty());
+            if (value == null) {
+                throw new InvalidCursorException("Malformed cursor.");
+            }
+            keys.put(order.getProperty(), parseKey(order.getProperty(), value));
+        }
+
+        return new SongCursor(sort, ScrollPosition.forward(keys));
+    }
+
+    public static String encode(Sort sort, KeysetScrollPosition position) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.getProperty() + "," + order.getDirection().name());
+        }
+
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, String.valueOf(value)));
+
+        String json = GSON.toJson(new Payload(orders, keys));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Sort withTieBreaker(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidCursorException("Sorting by '" + order.getProperty() + "' is not supported in cursor mode.");
+            }
+        }
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        return sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private static Object parseKey(String property, String value) {
+        try {
+            return switch (property) {
+                case "id" -> UUID.fromString(value);
+                case "releaseYear", "duration" -> Integer.valueOf(value);
+                default -> value;
+            };
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor.");
+        }
+    }
+
+    private record Payload(List<String> sort, Map<String, String> keys) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.task2.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.example.task2.exception.custom.InvalidCursorException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opaque continuation token for ranked search results: the rank and id of the last returned song.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SongSearchCursor {
+
+    private final float rank;
+    private final UUID id;
+
+    public static SongSearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                throw new InvalidCursorException("Malformed cursor.");
+            }
+            return new SongSearchCursor(Float.parseFloat(value.substring(0, separator)),
+                UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor.");
+        }
+    }
+
+    public String encode() {
+        String value = Float.toString(rank) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
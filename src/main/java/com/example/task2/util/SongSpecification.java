@@ -1,31 +1,61 @@
 package com.example.task2.util;
 
+import java.util.UUID;
+
 import org.springframework.data.jpa.domain.Specification;
 
+import com.example.task2.dto.SongFilter;
+import com.example.task2.model.Album;
+import com.example.task2.model.Artist;
 import com.example.task2.model.Song;
 
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
 public class SongSpecification {
 
+    public static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<Song> matches(SongFilter songFilter) {
+        return isAlbum(songFilter.getAlbumName())
+            .and(releasedInYear(songFilter.getReleasedYear()))
+            .and(isArist(songFilter.getArtistName()));
+    }
+
+    /**
+     * Matching artists are resolved in a subquery on {@code lower(name)}, which is served by the
+     * {@code idx_artists_name_trgm} index; songs are then looked up through {@code idx_songs_artist_id}.
+     */
     public static Specification<Song> isArist(String artistName) {
         return (root, query, builder) -> {
             if (artistName == null || artistName.trim().isEmpty()) {
                 return null;
             }
 
-            String pattern = "%" + artistName.toLowerCase() + "%";
+            Subquery<UUID> artistIds = query.subquery(UUID.class);
+            Root<Artist> artist = artistIds.from(Artist.class);
+            artistIds.select(artist.get("id"))
+                .where(builder.like(builder.lower(artist.get("name")), containsPattern(artistName), LIKE_ESCAPE));
 
-            return builder.like(builder.lower(root.get("artist").get("name")), pattern);
+            return root.get("artist").get("id").in(artistIds);
         };
     }
 
+    /**
+     * Same shape as {@link #isArist(String)}, backed by {@code idx_albums_name_trgm} and {@code idx_songs_album_id}.
+     */
     public static Specification<Song> isAlbum(String albumName) {
         return (root, query, builder) -> {
             if (albumName == null || albumName.trim().isEmpty()) {
                 return null;
             }
-            String pattern = "%" + albumName.toLowerCase() + "%";
-            
-            return builder.like(builder.lower(root.get("album").get("name")), pattern);
+
+            Subquery<UUID> albumIds = query.subquery(UUID.class);
+            Root<Album> album = albumIds.from(Album.class);
+            albumIds.select(album.get("id"))
+                .where(builder.like(builder.lower(album.get("name")), containsPattern(albumName), LIKE_ESCAPE));
+
+            return root.get("album").get("id").in(albumIds);
         };
     }
 
@@ -38,4 +68,21 @@ public class SongSpecification {
             return builder.equal(root.get("releaseYear"), year);
         };
     }
+
+    /**
+     * Lower-cased substring pattern with LIKE wildcards in the user input escaped by {@link #LIKE_ESCAPE},
+     * so that "100%" matches literally instead of acting as a prefix search.
+     */
+    public static String containsPattern(String value) {
+        String lowered = value.toLowerCase();
+        StringBuilder pattern = new StringBuilder(lowered.length() + 2).append('%');
+        for (int i = 0; i < lowered.length(); i++) {
+            char c = lowered.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
 }
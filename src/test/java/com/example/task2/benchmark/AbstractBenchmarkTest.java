@@ -0,0 +1,47 @@
+package com.example.task2.benchmark;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterAll;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.example.task2.config.AbstractIntegrationTest;
+
+/**
+ * Base of the benchmarks. They seed and inspect the test database through a connection of their own, outside of
+ * the application's pool and transactions, and leave the catalog empty for the test classes that run after them.
+ */
+public abstract class AbstractBenchmarkTest extends AbstractIntegrationTest {
+
+    /**
+     * A connection of its own to the test database, for benchmarks that keep one open across many statements.
+     * The caller destroys it.
+     */
+    protected static SingleConnectionDataSource dataSource() {
+        return new SingleConnectionDataSource(
+            postgreSQLContainer.getJdbcUrl(), postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword(), true);
+    }
+
+    protected static void inDatabase(Consumer<JdbcTemplate> work) {
+        queryDatabase(jdbcTemplate -> {
+            work.accept(jdbcTemplate);
+            return null;
+        });
+    }
+
+    protected static <T> T queryDatabase(Function<JdbcTemplate, T> query) {
+        SingleConnectionDataSource dataSource = dataSource();
+        try {
+            return query.apply(new JdbcTemplate(dataSource));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @AfterAll
+    static void clearCatalog() {
+        inDatabase(jdbcTemplate -> jdbcTemplate.execute("TRUNCATE song_genre, songs, albums, artists, genres CASCADE"));
+    }
+}
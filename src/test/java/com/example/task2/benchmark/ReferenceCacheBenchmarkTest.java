@@ -0,0 +1,92 @@
+package com.example.task2.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements per page of the cursor-paginated {@code _list}, once with the second-level cache
+ * emptied before every page and once with the cache warm. Excluded from the default build,
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ReferenceCacheBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int SONG_COUNT = 20_000;
+    private static final int PAGES = 20;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void generateCatalog() {
+        inDatabase(jdbcTemplate -> {
+            jdbcTemplate.execute("INSERT INTO artists(id, name) "
+                + "SELECT gen_random_uuid(), 'Artist ' || i FROM generate_series(1, 200) i");
+            jdbcTemplate.execute("INSERT INTO albums(id, name, artist_id) "
+                + "SELECT gen_random_uuid(), 'Album ' || a.name, a.id FROM artists a");
+            jdbcTemplate.execute("INSERT INTO genres(id, name) "
+                + "SELECT gen_random_uuid(), 'Genre ' || i FROM generate_series(1, 20) i");
+            jdbcTemplate.execute("INSERT INTO songs(id, title, release_year, duration, artist_id, album_id) "
+                + "SELECT gen_random_uuid(), 'Song ' || i, 1950 + i % 75, 60 + i % 400, al.artist_id, al.id "
+                + "FROM generate_series(1, " + SONG_COUNT + ") i "
+                + "JOIN (SELECT id, artist_id, row_number() OVER (ORDER BY id) - 1 AS n FROM albums) al ON al.n = i % 200");
+            jdbcTemplate.execute("INSERT INTO song_genre(song_id, genre_id) "
+                + "SELECT s.id, g.id FROM songs s JOIN genres g ON g.name IN ('Genre 1', 'Genre 2')");
+            jdbcTemplate.execute("ANALYZE");
+        });
+    }
+
+    @Test
+    @DisplayName("Warm second-level cache saves the artist and album loads of every _list page; prints statements per page")
+    void compareColdAndWarmCache() throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        double cold = statementsPerPage(statistics, () -> sessionFactory.getCache().evictAllRegions());
+        double warm = statementsPerPage(statistics, () -> {
+        });
+
+        System.out.printf("_list pages=%d size=%d statements/page: cold cache=%.1f, warm cache=%.1f; "
+            + "second-level cache hits=%d misses=%d%n",
+            PAGES, PAGE_SIZE, cold, warm,
+            statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+        Assertions.assertTrue(warm < cold, "A warm cache should need fewer statements per page.");
+    }
+
+    private double statementsPerPage(Statistics statistics, Runnable beforePage) throws Exception {
+        statistics.clear();
+        String cursor = "";
+        for (int page = 0; page < PAGES; page++) {
+            beforePage.run();
+            String body = mockMvc.perform(post("/api/song/_list")
+                    .param("cursor", cursor)
+                    .param("size", String.valueOf(PAGE_SIZE))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            JsonNode next = objectMapper.readTree(body).get("nextCursor");
+            cursor = next.isNull() ? "" : next.asText();
+        }
+        return statistics.getPrepareStatementCount() / (double) PAGES;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.task2.benchmark;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.task2.dto.ReportEngine;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the two report engines on a generated catalog. Excluded from the default build,
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ReportExportBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int SONG_COUNT = 200_000;
+    private static final int ROUNDS = 3;
+
+    @BeforeAll
+    static void generateCatalog() {
+        inDatabase(jdbcTemplate -> {
+            jdbcTemplate.execute("INSERT INTO artists(id, name) "
+                + "SELECT gen_random_uuid(), 'Artist ' || i FROM generate_series(1, 5000) i");
+            jdbcTemplate.execute("INSERT INTO albums(id, name, artist_id) "
+                + "SELECT gen_random_uuid(), 'Album ' || i, a.id FROM generate_series(1, 15000) i "
+                + "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM artists) a ON a.n = i % 5000");
+            jdbcTemplate.execute("INSERT INTO genres(id, name) "
+                + "SELECT gen_random_uuid(), 'Genre ' || i FROM generate_series(1, 20) i");
+            jdbcTemplate.execute("INSERT INTO songs(id, title, release_year, duration, artist_id, album_id) "
+                + "SELECT gen_random_uuid(), 'Song, \"' || i || '\"', 1950 + i % 75, 60 + i % 400, al.artist_id, al.id "
+                + "FROM generate_series(1, " + SONG_COUNT + ") i "
+                + "JOIN (SELECT id, artist_id, row_number() OVER (ORDER BY id) - 1 AS n FROM albums) al ON al.n = i % 15000");
+            jdbcTemplate.execute("INSERT INTO song_genre(song_id, genre_id) "
+                + "SELECT s.id, g.id FROM songs s JOIN genres g ON g.name IN ('Genre 1', 'Genre 2')");
+            jdbcTemplate.execute("ANALYZE");
+        });
+    }
+
+    @Test
+    @DisplayName("COPY and Hibernate engines export the same rows; prints timings per engine")
+    void compareEngines() throws Exception {
+        long hibernateRows = 0;
+        long copyRows = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            hibernateRows = export(ReportEngine.HIBERNATE, round);
+            copyRows = export(ReportEngine.COPY, round);
+        }
+
+        Assertions.assertEquals(SONG_COUNT, hibernateRows);
+        Assertions.assertEquals(hibernateRows, copyRows, "Both engines should export the same number of rows.");
+    }
+
+    private long export(ReportEngine engine, int round) throws Exception {
+        long start = System.nanoTime();
+        MvcResult result = mockMvc.perform(post("/api/song/_report")
+                .param("engine", engine.name())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        long lines = 0;
+        for (byte b : body) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        System.out.printf("report engine=%s round=%d rows=%d bytes=%d time=%d ms%n",
+            engine, round, lines - 1, body.length, elapsedMillis);
+        return lines - 1;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.task2.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import com.example.task2.dto.SaveSongDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Creates, reads and deletes the same number of songs once through the single-item endpoints and once through
+ * {@code _bulkCreate}, {@code _batchGet} and {@code _bulkDelete}. Every song is read once, so the single reads
+ * all miss the cache of serialized songs. Excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SongBulkBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int ITEMS = 2_000;
+
+    private static UUID artistId;
+    private static UUID albumId;
+    private static List<UUID> genreIds;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void generateCatalog() {
+        inDatabase(jdbcTemplate -> {
+            artistId = UUID.randomUUID();
+            albumId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO artists(id, name) VALUES (?, 'Bulk Artist')", artistId);
+            jdbcTemplate.update("INSERT INTO albums(id, name, artist_id) VALUES (?, 'Bulk Album', ?)", albumId, artistId);
+            jdbcTemplate.execute("INSERT INTO genres(id, name) "
+                + "SELECT gen_random_uuid(), 'Genre ' || i FROM generate_series(1, 2) i");
+            genreIds = jdbcTemplate.queryForList("SELECT id FROM genres", UUID.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Bulk endpoints beat one call per song; prints timings per operation")
+    void compareSingleAndBulkCalls() throws Exception {
+        List<SaveSongDto> songs = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            songs.add(SaveSongDto.builder()
+                .title("Bulk " + i)
+                .artistId(artistId)
+                .albumId(albumId)
+                .releaseYear(1950 + i % 75)
+                .duration(60 + i % 400)
+                .genresId(genreIds)
+                .build());
+        }
+
+        List<UUID> ids = new ArrayList<>(ITEMS);
+        long singleCreate = time(() -> {
+            for (SaveSongDto song : songs) {
+                String body = mockMvc.perform(post("/api/song")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(song)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+                ids.add(UUID.fromString(objectMapper.readTree(body).get("result").asText()));
+            }
+        });
+        long singleGet = time(() -> {
+            for (UUID id : ids) {
+                mockMvc.perform(get("/api/song/{id}", id)).andExpect(status().isOk());
+            }
+        });
+        long singleDelete = time(() -> {
+            for (UUID id : ids) {
+                mockMvc.perform(delete("/api/song/{id}", id)).andExpect(status().isNoContent());
+            }
+        });
+
+        List<UUID> bulkIds = new ArrayList<>(ITEMS);
+        long bulkCreate = time(() -> {
+            JsonNode results = bulk("/api/song/_bulkCreate", songs);
+            results.forEach(result -> bulkIds.add(UUID.fromString(result.get("id").asText())));
+        });
+        long batchGet = time(() -> bulk("/api/song/_batchGet", bulkIds));
+        long bulkDelete = time(() -> bulk("/api/song/_bulkDelete", bulkIds));
+
+        System.out.printf("songs=%d create: single=%d ms bulk=%d ms; get: single=%d ms batch=%d ms; "
+            + "delete: single=%d ms bulk=%d ms%n",
+            ITEMS, singleCreate, bulkCreate, singleGet, batchGet, singleDelete, bulkDelete);
+        Assertions.assertEquals(ITEMS, bulkIds.size());
+        Assertions.assertTrue(bulkCreate < singleCreate, "_bulkCreate should beat one POST per song.");
+        Assertions.assertTrue(batchGet < singleGet, "_batchGet should beat one GET per song.");
+        Assertions.assertTrue(bulkDelete < singleDelete, "_bulkDelete should beat one DELETE per song.");
+    }
+
+    private JsonNode bulk(String path, Object items) throws Exception {
+        String body = mockMvc.perform(post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(items)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static long time(Step step) throws Exception {
+        long start = System.nanoTime();
+        step.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
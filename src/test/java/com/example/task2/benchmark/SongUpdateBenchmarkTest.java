@@ -0,0 +1,115 @@
+package com.example.task2.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import com.example.task2.dto.PatchSongDto;
+import com.example.task2.dto.SaveSongDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Updates every song of a small catalog over and over and counts the {@code song_genre} rows each round
+ * wrote, told apart by the transaction id that wrote them. A full {@code PUT} with the same genres and a
+ * {@code PATCH} of the title should write none, a {@code PATCH} swapping one of two genres one per song.
+ * Excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SongUpdateBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int SONG_COUNT = 500;
+
+    private static UUID artistId;
+    private static UUID albumId;
+    private static List<UUID> genreIds;
+    private static List<UUID> songIds;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void generateCatalog() {
+        inDatabase(jdbcTemplate -> {
+            artistId = UUID.randomUUID();
+            albumId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO artists(id, name) VALUES (?, 'Update Artist')", artistId);
+            jdbcTemplate.update("INSERT INTO albums(id, name, artist_id) VALUES (?, 'Update Album', ?)", albumId, artistId);
+            jdbcTemplate.execute("INSERT INTO genres(id, name) "
+                + "SELECT gen_random_uuid(), 'Genre ' || i FROM generate_series(1, 3) i");
+            genreIds = jdbcTemplate.queryForList("SELECT id FROM genres ORDER BY name", UUID.class);
+            jdbcTemplate.update("INSERT INTO songs(id, title, release_year, duration, artist_id, album_id) "
+                + "SELECT gen_random_uuid(), 'Song ' || i, 2000, 100, ?, ? FROM generate_series(1, " + SONG_COUNT + ") i",
+                artistId, albumId);
+            jdbcTemplate.update("INSERT INTO song_genre(song_id, genre_id) "
+                + "SELECT s.id, g.id FROM songs s CROSS JOIN (VALUES (?::uuid), (?::uuid)) AS g(id)",
+                genreIds.get(0), genreIds.get(1));
+            songIds = jdbcTemplate.queryForList("SELECT id FROM songs", UUID.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Updates rewrite only the genre links that change; prints links written and time per round")
+    void countGenreLinksWritten() throws Exception {
+        long unchangedPut = round("PUT, same genres", id -> mockMvc.perform(put("/api/song/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(SaveSongDto.builder()
+                    .title("Put " + id)
+                    .artistId(artistId)
+                    .albumId(albumId)
+                    .releaseYear(2001)
+                    .duration(120)
+                    .genresId(List.of(genreIds.get(0), genreIds.get(1)))
+                    .build())))
+            .andExpect(status().isOk()));
+
+        long titlePatch = round("PATCH title", id -> mockMvc.perform(patch("/api/song/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(PatchSongDto.builder().title("Patch " + id).build())))
+            .andExpect(status().isOk()));
+
+        long genreSwap = round("PATCH one genre swapped", id -> mockMvc.perform(patch("/api/song/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(PatchSongDto.builder()
+                    .genresId(List.of(genreIds.get(0), genreIds.get(2)))
+                    .build())))
+            .andExpect(status().isOk()));
+
+        Assertions.assertEquals(0, unchangedPut);
+        Assertions.assertEquals(0, titlePatch);
+        Assertions.assertEquals(SONG_COUNT, genreSwap);
+    }
+
+    /** @return the {@code song_genre} rows written by the round */
+    private long round(String name, Update update) throws Exception {
+        long before = queryDatabase(jdbcTemplate -> jdbcTemplate.queryForObject("SELECT txid_current()", Long.class));
+
+        long start = System.nanoTime();
+        for (UUID id : songIds) {
+            update.run(id);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long written = queryDatabase(jdbcTemplate -> jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM song_genre WHERE xmin::text::bigint > ?", Long.class, before));
+
+        System.out.printf("update=%s songs=%d genre links written=%d time=%d ms%n",
+            name, SONG_COUNT, written, elapsedMillis);
+        return written;
+    }
+
+    @FunctionalInterface
+    private interface Update {
+        void run(UUID id) throws Exception;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.task2.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.task2.dto.UploadMode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the sequential chunked upload with the pipelined one and with the COPY import on a generated file in which every
+ * thousandth record points to a missing artist. Excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class UploadPipelineBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int RECORD_COUNT = 50_000;
+    private static final int ROUNDS = 3;
+
+    private static byte[] file;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void generateFile() {
+        inDatabase(jdbcTemplate -> {
+            jdbcTemplate.execute("INSERT INTO artists(id, name) "
+                + "SELECT gen_random_uuid(), 'Artist ' || i FROM generate_series(1, 1000) i");
+            jdbcTemplate.execute("INSERT INTO albums(id, name, artist_id) "
+                + "SELECT gen_random_uuid(), 'Album ' || a.name, a.id FROM artists a");
+            jdbcTemplate.execute("INSERT INTO genres(id, name) "
+                + "SELECT gen_random_uuid(), 'Genre ' || i FROM generate_series(1, 20) i");
+
+            List<Map<String, Object>> albums = jdbcTemplate.queryForList("SELECT id, artist_id FROM albums");
+            List<UUID> genres = jdbcTemplate.queryForList("SELECT id FROM genres", UUID.class);
+
+            StringBuilder json = new StringBuilder(RECORD_COUNT * 200).append('[');
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                Map<String, Object> album = albums.get(i % albums.size());
+                Object artistId = i % 1000 == 7 ? UUID.randomUUID() : album.get("artist_id");
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"title\":\"Benchmark ").append(i)
+                    .append("\",\"artistId\":\"").append(artistId)
+                    .append("\",\"albumId\":\"").append(album.get("id"))
+                    .append("\",\"releaseYear\":").append(1950 + i % 75)
+                    .append(",\"duration\":").append(60 + i % 400)
+                    .append(",\"genresId\":[\"").append(genres.get(i % genres.size()))
+                    .append("\",\"").append(genres.get((i + 1) % genres.size())).append("\"]}");
+            }
+            file = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private static void clearSongs() {
+        inDatabase(jdbcTemplate -> jdbcTemplate.execute("TRUNCATE song_genre, songs CASCADE"));
+    }
+
+    @Test
+    @DisplayName("Sequential, pipelined and COPY uploads import the same records; prints timings per mode")
+    void compareModes() throws Exception {
+        int expectedFailures = RECORD_COUNT / 1000;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (UploadMode mode : List.of(UploadMode.BATCHED, UploadMode.PIPELINED, UploadMode.COPY)) {
+                JsonNode result = upload(mode, round);
+                Assertions.assertEquals(RECORD_COUNT - expectedFailures, result.get("successfulRecords").asInt());
+                Assertions.assertEquals(expectedFailures, result.get("failedRecords").asInt());
+                clearSongs();
+            }
+        }
+    }
+
+    private JsonNode upload(UploadMode mode, int round) throws Exception {
+        MockMultipartFile multipartFile = new MockMultipartFile("file", "songs.json", "application/json", file);
+
+        long start = System.nanoTime();
+        MvcResult result = mockMvc.perform(multipart("/api/song/upload")
+                .file(multipartFile)
+                .param("mode", mode.name()))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("upload mode=%s round=%d records=%d cores=%d time=%d ms (%.0f records/s)%n",
+            mode, round, RECORD_COUNT, Runtime.getRuntime().availableProcessors(), elapsedMillis,
+            RECORD_COUNT * 1000.0 / Math.max(1, elapsedMillis));
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
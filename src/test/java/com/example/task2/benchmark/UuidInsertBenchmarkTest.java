@@ -0,0 +1,115 @@
+package com.example.task2.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.example.task2.model.UuidV7Generator;
+
+/**
+ * Fills a copy of the {@code songs} primary key and of the {@code song_genre} link table once with random
+ * (version 4) ids and once with {@link UuidV7Generator} ids, then times inserting more songs in chunks the size of
+ * an upload chunk and prints the resulting index sizes. Random ids land on pages all over the index and split
+ * them half full; time-ordered ids only ever fill its rightmost page. Excluded from the default build,
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class UuidInsertBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int PRELOADED_SONGS = 2_000_000;
+    private static final int PRELOAD_CHUNK = 10_000;
+    private static final int INSERTED_SONGS = 500_000;
+    private static final int INSERT_CHUNK = 1_000;
+
+    private static final UUID[] GENRE_IDS = {UUID.randomUUID(), UUID.randomUUID()};
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createTables() {
+        dataSource = dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String version : List.of("v4", "v7")) {
+            jdbcTemplate.execute("CREATE TABLE songs_" + version + " (id UUID PRIMARY KEY, title VARCHAR(100) NOT NULL)");
+            jdbcTemplate.execute("CREATE TABLE song_genre_" + version
+                + " (song_id UUID NOT NULL, genre_id UUID NOT NULL, PRIMARY KEY (song_id, genre_id))");
+        }
+    }
+
+    @AfterAll
+    static void dropTables() {
+        try {
+            jdbcTemplate.execute("DROP TABLE songs_v4, song_genre_v4, songs_v7, song_genre_v7");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Time-ordered ids keep the primary key indexes smaller; prints insert time and index sizes")
+    void compareRandomAndTimeOrderedIds() {
+        Result random = run("v4", UUID::randomUUID);
+        Result timeOrdered = run("v7", UuidV7Generator::next);
+
+        for (Result result : List.of(random, timeOrdered)) {
+            System.out.printf("ids=%s preloaded=%d inserted=%d in chunks of %d: time=%d ms, "
+                + "songs pkey=%d kB, song_genre pkey=%d kB%n",
+                result.version(), PRELOADED_SONGS, INSERTED_SONGS, INSERT_CHUNK, result.insertMillis(),
+                result.songsIndexBytes() / 1024, result.linksIndexBytes() / 1024);
+        }
+        Assertions.assertTrue(timeOrdered.songsIndexBytes() < random.songsIndexBytes(),
+            "Time-ordered ids should leave the songs primary key smaller.");
+        Assertions.assertTrue(timeOrdered.linksIndexBytes() < random.linksIndexBytes(),
+            "Time-ordered ids should leave the song_genre primary key smaller.");
+    }
+
+    private Result run(String version, Supplier<UUID> ids) {
+        for (int inserted = 0; inserted < PRELOADED_SONGS; inserted += PRELOAD_CHUNK) {
+            insertChunk(version, ids, PRELOAD_CHUNK);
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE songs_" + version + ", song_genre_" + version);
+
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < INSERTED_SONGS; inserted += INSERT_CHUNK) {
+            insertChunk(version, ids, INSERT_CHUNK);
+        }
+        long insertMillis = (System.nanoTime() - start) / 1_000_000;
+
+        return new Result(version, insertMillis,
+            indexBytes("songs_" + version + "_pkey"), indexBytes("song_genre_" + version + "_pkey"));
+    }
+
+    private void insertChunk(String version, Supplier<UUID> ids, int size) {
+        List<UUID> songIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            songIds.add(ids.get());
+        }
+        Object[] songIdArray = songIds.toArray();
+        jdbcTemplate.update("INSERT INTO songs_" + version + " (id, title) "
+            + "SELECT id, 'Song' FROM unnest(?::uuid[]) AS id", ps ->
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", songIdArray)));
+        jdbcTemplate.update("INSERT INTO song_genre_" + version + " (song_id, genre_id) "
+            + "SELECT s.id, g.id FROM unnest(?::uuid[]) AS s(id) CROSS JOIN unnest(?::uuid[]) AS g(id)", ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("uuid", songIdArray));
+                ps.setArray(2, ps.getConnection().createArrayOf("uuid", GENRE_IDS));
+            });
+    }
+
+    private long indexBytes(String index) {
+        return jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, index);
+    }
+
+    private record Result(String version, long insertMillis, long songsIndexBytes, long linksIndexBytes) {
+    }
+}
@@ -30,6 +30,10 @@ public abstract class AbstractIntegrationTest {
 
     @DynamicPropertySource
     private static void registerDataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+
         registry.add("spring.liquibase.enabled", () -> "true");
         
         registry.add("spring.liquibase.url", postgreSQLContainer::getJdbcUrl); 
@@ -25,8 +25,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class AlbumControllerIntegrationTest extends AbstractIntegrationTest {
 
@@ -102,6 +109,45 @@ public class AlbumControllerIntegrationTest extends AbstractIntegrationTest {
             .andExpect(jsonPath("$.message").value("Album with name Test Album 1 already exists.")); 
     }
 
+    @Test
+    @DisplayName("POST /api/album - Concurrent creation of one name: one 201, the rest 409")
+    void createAlbum_Concurrent_OneCreated() throws Exception {
+        String body = asJsonString(new SaveAlbumDto("Concurrent Album", createdArtistId));
+
+        List<Integer> statuses = concurrently(40, i -> mockMvc.perform(post(API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andReturn().getResponse().getStatus());
+
+        assertEquals(1, Collections.frequency(statuses, 201), "Only one request should create the album: " + statuses);
+        assertEquals(39, Collections.frequency(statuses, 409), "The others should get 409: " + statuses);
+        assertEquals(3, albumRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/album - Failure: Artist not found (404 Not Found)")
+    void createAlbum_Failed_ArtistNotExist() throws Exception {
+        UUID missingArtistId = UUID.randomUUID();
+
+        mockMvc.perform(post(API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveAlbumDto("Test Album 1", missingArtistId))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Artist with id '" + missingArtistId + "' not found."));
+    }
+
+    @Test
+    @DisplayName("POST /api/album/_findOrCreate - Existing name of the artist returns its ID")
+    void findOrCreateAlbum_ExistingName_ReturnsSameId() throws Exception {
+        mockMvc.perform(post(API_PATH + "/_findOrCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveAlbumDto("Test Album 1", createdArtistId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(createdAlbumId.toString()));
+
+        assertEquals(2, albumRepository.count());
+    }
+
     @Test
     @DisplayName("POST /api/album - Validation Failure (blank name)")
     void createAlbum_ValidationFailed_NameBlank() throws Exception {
@@ -146,6 +192,37 @@ public class AlbumControllerIntegrationTest extends AbstractIntegrationTest {
         assertEquals(UPDATED_NAME, updatedAlbum.getName(), "Album name should be updated in the database.");
     }
 
+    @Test
+    @DisplayName("PUT /api/album/{id} - Saving an album under its own name succeeds")
+    void updateAlbum_UnchangedName_Success() throws Exception {
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdAlbumId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveAlbumDto("Test Album 1", createdArtistId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(createdAlbumId.toString()));
+    }
+
+    @Test
+    @DisplayName("PUT /api/album/{id} - Concurrent renames to one name: one 200, the rest 409")
+    void updateAlbum_Concurrent_OneRenamed() throws Exception {
+        Artist artist = artistRepository.findById(createdArtistId).orElseThrow();
+        List<Album> albums = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            albums.add(Album.builder().name("Album To Rename " + i).artist(artist).build());
+        }
+        albumRepository.saveAll(albums);
+        String body = asJsonString(new SaveAlbumDto("Renamed Album", createdArtistId));
+
+        List<Integer> statuses = concurrently(albums.size(), i -> mockMvc.perform(put(API_PATH + "/{id}", albums.get(i).getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andReturn().getResponse().getStatus());
+
+        assertEquals(1, Collections.frequency(statuses, 200), "Only one album should be renamed: " + statuses);
+        assertEquals(19, Collections.frequency(statuses, 409), "The others should get 409: " + statuses);
+    }
+
     @Test
     @DisplayName("PUT /api/album/{id} - Validation Failure: Name too long (400)")
     void updateAlbum_ValidationFailed_TooLongName() throws Exception {
@@ -187,4 +264,33 @@ public class AlbumControllerIntegrationTest extends AbstractIntegrationTest {
                 
                 .andExpect(jsonPath("$.message").value("Album with id '" + nonExistentId.toString() + "' not found."));
     }
-}
\ No newline at end of file
+
+    /** Runs the requests from as many threads at once and returns their response statuses. */
+    private List<Integer> concurrently(int requests, IntRequest request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return request.perform(index);
+                }));
+            }
+            start.countDown();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> response : responses) {
+                statuses.add(response.get(30, TimeUnit.SECONDS));
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntRequest {
+        int perform(int index) throws Exception;
+    }
+}
@@ -99,6 +99,18 @@ public class ArtistControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Artist with name Test Artist 2 already exists.")); 
     }
 
+    @Test
+    @DisplayName("POST /api/artist/_findOrCreate - Existing name returns its ID without creating a duplicate")
+    void findOrCreateArtist_ExistingName_ReturnsSameId() throws Exception {
+        mockMvc.perform(post(API_PATH + "/_findOrCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveArtistDto("Test Artist 1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(createdArtistId.toString()));
+
+        assertEquals(2, artistRepository.count());
+    }
+
     @Test
     @DisplayName("GET /api/artist - Successful retrieval of all artists")
     void getAllArtists_Success() throws Exception {
@@ -130,6 +142,29 @@ public class ArtistControllerIntegrationTest extends AbstractIntegrationTest {
         assertEquals(UPDATED_NAME, updatedArtist.getName(), "Artist name should be updated in the database.");
     }
 
+    @Test
+    @DisplayName("PUT /api/artist/{id} - Failure: Name taken by another artist (409 Conflict)")
+    void updateArtist_Failed_DuplicateName() throws Exception {
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdArtistId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveArtistDto("Test Artist 2"))))
+                .andExpect(status().isConflict());
+
+        assertEquals("Test Artist 1", artistRepository.findById(createdArtistId).orElseThrow().getName(),
+            "The artist should keep its name.");
+    }
+
+    @Test
+    @DisplayName("PUT /api/artist/{id} - Saving an artist under its own name succeeds")
+    void updateArtist_UnchangedName_Success() throws Exception {
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdArtistId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveArtistDto("Test Artist 1"))))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("PUT /api/artist/{id} - Validation Failure: Name too long (400)")
     void updateArtist_ValidationFailed_TooLongName() throws Exception {
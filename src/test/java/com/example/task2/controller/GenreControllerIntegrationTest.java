@@ -102,6 +102,25 @@ public class GenreControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Genre with name Test Genre 1 already exists.")); 
     }
 
+    @Test
+    @DisplayName("POST /api/genre/_findOrCreate - Existing name returns its ID, new name is created and listed")
+    void findOrCreateGenre_ReturnsExistingOrCreates() throws Exception {
+        mockMvc.perform(post(API_PATH + "/_findOrCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Test Genre 1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(createdGenreId.toString()));
+
+        mockMvc.perform(post(API_PATH + "/_findOrCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Test Genre 3"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
     @Test
     @DisplayName("GET /api/genre - Successful retrieval of genre list") 
     void getAllGenres_Success() throws Exception { 
@@ -132,6 +151,84 @@ public class GenreControllerIntegrationTest extends AbstractIntegrationTest {
         assertEquals(UPDATED_NAME, updatedGenre.getName(), "Genre name should be updated in the database.");
     }
 
+    @Test
+    @DisplayName("GET /api/genre - Registry serves the renamed genre right after the update")
+    void getAllGenres_AfterUpdate_ReturnsNewName() throws Exception {
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdGenreId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Renamed Genre"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.id == '" + createdGenreId + "')].name").value("Renamed Genre"));
+    }
+
+    @Test
+    @DisplayName("GET /api/genre - ETag of the list stops matching once a genre is renamed")
+    void getAllGenres_IfNoneMatch_NotModifiedUntilUpdate() throws Exception {
+
+        String etag = mockMvc.perform(get(API_PATH))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(API_PATH).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdGenreId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Renamed Genre"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_PATH).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + createdGenreId + "')].name").value("Renamed Genre"));
+    }
+
+    @Test
+    @DisplayName("GET /api/genre - ETag of the list stops matching once a genre is created")
+    void getAllGenres_IfNoneMatch_ModifiedAfterCreate() throws Exception {
+
+        String etag = mockMvc.perform(get(API_PATH))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post(API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Brand New Genre"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(API_PATH).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Brand New Genre')]").exists());
+    }
+
+    @Test
+    @DisplayName("PUT /api/genre/{id} - Failure: Name taken by another genre (409 Conflict)")
+    void updateGenre_Failed_DuplicateName() throws Exception {
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdGenreId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Test Genre 2"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Genre with name Test Genre 2 already exists."));
+
+        assertEquals("Test Genre 1", genreRepository.findById(createdGenreId).orElseThrow().getName(),
+            "The genre should keep its name.");
+    }
+
+    @Test
+    @DisplayName("PUT /api/genre/{id} - Saving a genre under its own name succeeds")
+    void updateGenre_UnchangedName_Success() throws Exception {
+
+        mockMvc.perform(put(API_PATH + "/{id}", createdGenreId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveGenreDto("Test Genre 1"))))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("PUT /api/genre/{id} - Validation Failure: Name too long (400)")
     void updateGenre_ValidationFailed_TooLongName() throws Exception {
@@ -1,9 +1,18 @@
 package com.example.task2.controller;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,13 +20,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.example.task2.config.AbstractIntegrationTest;
+import com.example.task2.dto.PatchSongDto;
+import com.example.task2.dto.ReportEngine;
+import com.example.task2.dto.SaveArtistDto;
 import com.example.task2.dto.SaveSongDto;
 import com.example.task2.dto.SongFilter;
+import com.example.task2.dto.SongSearchDto;
 import com.example.task2.model.Album;
 import com.example.task2.model.Artist;
 import com.example.task2.model.Genre;
@@ -25,13 +39,19 @@ import com.example.task2.model.Song;
 import com.example.task2.repository.AlbumRepository;
 import com.example.task2.repository.ArtistRepository;
 import com.example.task2.repository.GenreRepository;
+import com.example.task2.repository.ReportJobRepository;
 import com.example.task2.repository.SongRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
@@ -51,10 +71,19 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
 
     @Autowired
     private AlbumRepository albumRepository;
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
     
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private UUID createdSongId;
     private UUID createdArtistId;
     private UUID createdGenreId;
@@ -73,6 +102,7 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
 
     @AfterEach
     void tearDown() {
+        reportJobRepository.deleteAll();
         songRepository.deleteAll(); 
         artistRepository.deleteAll();
         genreRepository.deleteAll();
@@ -152,6 +182,32 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
               .andExpect(jsonPath("$.result").exists());
     }
 
+    @Test
+    @DisplayName("POST /api/song - New songs get increasing version 7 IDs")
+    void createSong_Success_TimeOrderedIds() throws Exception {
+        SaveSongDto saveSongDto = SaveSongDto.builder()
+            .title("Time Ordered Song")
+            .albumId(createdAlbumId)
+            .artistId(createdArtistId)
+            .duration(200)
+            .releaseYear(2023)
+            .genresId(List.of(createdGenreId))
+            .build();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String body = mockMvc.perform(post(API_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(saveSongDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(body).get("result").asText());
+        }
+
+        Assertions.assertEquals(7, UUID.fromString(ids.get(0)).version());
+        Assertions.assertTrue(ids.get(0).compareTo(ids.get(1)) < 0, "IDs should sort in creation order.");
+    }
+
 
     @Test
     @DisplayName("POST /api/song - Failure: Genre not found (404)")
@@ -219,6 +275,66 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
               .andExpect(jsonPath("$.message").value("Song with id '" + nonExistingSongId.toString() + "' not found."));
     }
 
+    @Test
+    @DisplayName("GET /api/song/{id} - Matching If-None-Match returns 304 through unrelated writes until the song changes")
+    void getSong_IfNoneMatch_NotModifiedUntilUpdate() throws Exception {
+
+        String etag = mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId).header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/artist")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SaveArtistDto("Unrelated Performer"))))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId).header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+
+        SaveSongDto saveSongDto = SaveSongDto.builder()
+            .title("Updated Song Title")
+            .albumId(createdAlbumId)
+            .artistId(createdArtistId)
+            .duration(200)
+            .releaseYear(2023)
+            .genresId(List.of(createdGenreId))
+            .build();
+        mockMvc.perform(put(API_PATH + "/{id}", createdSongId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(saveSongDto)))
+            .andExpect(status().isOk());
+
+        String newEtag = mockMvc.perform(get(API_PATH + "/{id}", createdSongId).header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Updated Song Title"))
+            .andReturn().getResponse().getHeader("ETag");
+        Assertions.assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    @DisplayName("GET /api/song/{id} - Cached details are dropped when the embedded artist is renamed")
+    void getSong_AfterArtistRename_ReturnsNewName() throws Exception {
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.artistInfo.name").value("Test Song 1"));
+
+        mockMvc.perform(put("/api/artist/{id}", createdArtistId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new SaveArtistDto("Renamed Performer"))))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.artistInfo.name").value("Renamed Performer"))
+            .andExpect(jsonPath("$.album.artist.name").value("Renamed Performer"));
+    }
+
     @Test
     @DisplayName("PUT /api/song/{id} - Successful song update")
     void updateSong_Success() throws Exception {
@@ -241,6 +357,61 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
               .andExpect(jsonPath("$.result").value(createdSongId.toString()));
     }
 
+    @Test
+    @DisplayName("PATCH /api/song/{id} - Changes only the given fields")
+    void patchSong_Title_KeepsOtherFields() throws Exception {
+
+        mockMvc.perform(patch(API_PATH + "/{id}", createdSongId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(PatchSongDto.builder().title("Patched Title").build())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.result").value(createdSongId.toString()));
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Patched Title"))
+            .andExpect(jsonPath("$.duration").value(210))
+            .andExpect(jsonPath("$.releaseYear").value(2020))
+            .andExpect(jsonPath("$.album.id").value(createdAlbumId.toString()))
+            .andExpect(jsonPath("$.genres.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/song/{id} - Genres are replaced by the given set")
+    void patchSong_Genres_ReplacesGenres() throws Exception {
+
+        mockMvc.perform(patch(API_PATH + "/{id}", createdSongId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(PatchSongDto.builder().genresId(List.of(createdGenreId)).build())))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Song Title 1"))
+            .andExpect(jsonPath("$.genres.length()").value(1))
+            .andExpect(jsonPath("$.genres[0].id").value(createdGenreId.toString()));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/song/{id} - Failure: Blank title and unknown genre are rejected")
+    void patchSong_Failed_InvalidFields() throws Exception {
+
+        mockMvc.perform(patch(API_PATH + "/{id}", createdSongId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(PatchSongDto.builder().title("   ").build())))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("title: must not be blank"));
+
+        UUID nonExistingGenreId = UUID.randomUUID();
+        mockMvc.perform(patch(API_PATH + "/{id}", createdSongId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(PatchSongDto.builder().genresId(List.of(nonExistingGenreId)).build())))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(jsonPath("$.genres.length()").value(2));
+    }
+
     @Test
     @DisplayName("PUT /api/song/{id} - Failure: Title too long (400)")
     void updateSong_Failed_TitleTooLong() throws Exception {
@@ -309,6 +480,162 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
               .andExpect(jsonPath("$.message").value("Song with id '" + nonExistingSongId.toString() + "' not found."));
     }
 
+    @Test
+    @DisplayName("POST /api/song/_delete - Deletes every song matching the filter")
+    void deleteSongs_ByFilter_DeletesMatchingSongs() throws Exception {
+
+        mockMvc.perform(post(API_PATH + "/_delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SongFilter(null, "Test Song 1", null))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deletedRecords").value(2));
+
+        Assertions.assertEquals(1, songRepository.count());
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_delete - Failure: Empty filter (400)")
+    void deleteSongs_Failed_EmptyFilter() throws Exception {
+
+        mockMvc.perform(post(API_PATH + "/_delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new SongFilter("", " ", null))))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("At least one filter criterion is required to delete songs."));
+
+        Assertions.assertEquals(3, songRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_bulkCreate - Valid songs are created, invalid ones reported per item")
+    void bulkCreateSongs_MixedItems_ReturnsStatusPerItem() throws Exception {
+
+        SaveSongDto valid = SaveSongDto.builder()
+            .title("Bulk Song")
+            .albumId(createdAlbumId)
+            .artistId(createdArtistId)
+            .duration(200)
+            .releaseYear(2020)
+            .genresId(List.of(createdGenreId))
+            .build();
+        SaveSongDto futureYear = SaveSongDto.builder()
+            .title("Bulk Song")
+            .albumId(createdAlbumId)
+            .artistId(createdArtistId)
+            .duration(200)
+            .releaseYear(3000)
+            .genresId(List.of(createdGenreId))
+            .build();
+        UUID missingArtistId = UUID.randomUUID();
+        SaveSongDto missingArtist = SaveSongDto.builder()
+            .title("Bulk Song")
+            .albumId(createdAlbumId)
+            .artistId(missingArtistId)
+            .duration(200)
+            .releaseYear(2020)
+            .genresId(List.of(createdGenreId))
+            .build();
+
+        mockMvc.perform(post(API_PATH + "/_bulkCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(List.of(valid, futureYear, missingArtist, valid))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(4))
+            .andExpect(jsonPath("$[0].status").value(201))
+            .andExpect(jsonPath("$[0].id").exists())
+            .andExpect(jsonPath("$[1].status").value(400))
+            .andExpect(jsonPath("$[1].message").value("releaseYear: The year cannot be later than the current year."))
+            .andExpect(jsonPath("$[2].status").value(404))
+            .andExpect(jsonPath("$[2].message").value("Artist with id '" + missingArtistId + "' not found."))
+            .andExpect(jsonPath("$[3].status").value(201));
+
+        Assertions.assertEquals(5, songRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_batchGet - Returns found songs and 404 for unknown ids, in request order")
+    void batchGetSongs_ReturnsStatusPerItem() throws Exception {
+
+        UUID nonExistingSongId = UUID.randomUUID();
+
+        mockMvc.perform(post(API_PATH + "/_batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(List.of(nonExistingSongId, createdSongId))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value(404))
+            .andExpect(jsonPath("$[0].message").value("Song with id '" + nonExistingSongId + "' not found."))
+            .andExpect(jsonPath("$[1].status").value(200))
+            .andExpect(jsonPath("$[1].song.title").value("Song Title 1"))
+            .andExpect(jsonPath("$[1].song.genres.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_bulkDelete - Deletes existing songs and reports 404 for unknown ids")
+    void bulkDeleteSongs_ReturnsStatusPerItem() throws Exception {
+
+        UUID nonExistingSongId = UUID.randomUUID();
+
+        mockMvc.perform(post(API_PATH + "/_bulkDelete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(List.of(createdSongId, nonExistingSongId))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value(204))
+            .andExpect(jsonPath("$[1].status").value(404));
+
+        Assertions.assertFalse(songRepository.existsById(createdSongId));
+        mockMvc.perform(get(API_PATH + "/{id}", createdSongId))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_batchGet - Failure: Too many items (400)")
+    void batchGetSongs_Failed_TooManyItems() throws Exception {
+
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5001; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        mockMvc.perform(post(API_PATH + "/_batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(ids)))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("ids: size must be between 0 and 5000"));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_batchGet - Failure: Empty list (400)")
+    void batchGetSongs_Failed_EmptyList() throws Exception {
+
+        mockMvc.perform(post(API_PATH + "/_batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("ids: must not be empty"));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_bulkDelete - Failure: Null id (400), nothing is deleted")
+    void bulkDeleteSongs_Failed_NullId() throws Exception {
+
+        mockMvc.perform(post(API_PATH + "/_bulkDelete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + createdSongId + "\", null]"))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("ids[1]: must not be null"));
+
+        Assertions.assertTrue(songRepository.existsById(createdSongId));
+    }
 
     @Test
     @DisplayName("POST /api/song/_list - Successful retrieval of all records")
@@ -359,6 +686,191 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
             .andExpect(jsonPath("$.totalElements").value(2));
     }
 
+    @Test
+    @DisplayName("POST /api/song/_list - Genres are aggregated per song in the projection")
+    void getSongs_Success_genresAggregated() throws Exception {
+
+        SongFilter songFilter = new SongFilter("", "", null);
+        mockMvc.perform(post(API_PATH + "/_list")
+            .param("page", "0")
+            .param("size", "10")
+            .param("sort", "title,asc")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(songFilter)))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title").value("Song Title 1"))
+            .andExpect(jsonPath("$.content[0].genres.length()").value(2))
+            .andExpect(jsonPath("$.content[0].album.artist.name").value("Test Song 1"))
+            .andExpect(jsonPath("$.content[1].genres.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_list - Failure: Unsupported sort property (400)")
+    void getSongs_Failed_unsupportedSort() throws Exception {
+
+        SongFilter songFilter = new SongFilter("", "", null);
+        mockMvc.perform(post(API_PATH + "/_list")
+            .param("sort", "genres")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(songFilter)))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Sorting by 'genres' is not supported."));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_list?cursor - Keyset pagination walks all records without a count")
+    void getSongs_Success_cursorMode() throws Exception {
+
+        SongFilter songFilter = new SongFilter("", "", null);
+        MvcResult firstPage = mockMvc.perform(post(API_PATH + "/_list")
+            .param("cursor", "")
+            .param("size", "2")
+            .param("sort", "title,asc")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(songFilter)))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[0].title").value("Song Title 1"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").doesNotExist())
+            .andReturn();
+
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(post(API_PATH + "/_list")
+            .param("cursor", nextCursor)
+            .param("size", "2")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(songFilter)))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].title").value("Song Title 3"))
+            .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_list?cursor - A page costs the same number of statements whatever its size")
+    void getSongs_cursorMode_StatementsDoNotGrowWithPageSize() throws Exception {
+        Genre genre1 = genreRepository.findById(createdGenreId).orElseThrow();
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Artist artist = artistRepository.save(Artist.builder().name("Batch Artist " + i).build());
+            Album album = albumRepository.save(Album.builder().name("Batch Album " + i).artist(artist).build());
+            songs.add(Song.builder()
+                .title("Batch Song " + i)
+                .duration(180)
+                .releaseYear(2010)
+                .artist(artist)
+                .album(album)
+                .genres(List.of(genre1))
+                .build());
+        }
+        songRepository.saveAll(songs);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // the first request warms up everything that is loaded once per application, not per page
+        statementsForCursorPage(sessionFactory, 1);
+
+        long smallPage = statementsForCursorPage(sessionFactory, 2);
+        long largePage = statementsForCursorPage(sessionFactory, 20);
+
+        Assertions.assertEquals(smallPage, largePage,
+            "Artists, albums and genres of a page should be loaded in batches, not per song.");
+    }
+
+    /** Runs one cursor page with the second-level cache emptied and counts the statements it prepared. */
+    private long statementsForCursorPage(SessionFactory sessionFactory, int size) throws Exception {
+        Statistics statistics = sessionFactory.getStatistics();
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+
+        mockMvc.perform(post(API_PATH + "/_list")
+            .param("cursor", "")
+            .param("size", String.valueOf(size))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new SongFilter("", "", null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(size));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_list?cursor - Failure: Malformed cursor (400)")
+    void getSongs_Failed_malformedCursor() throws Exception {
+
+        SongFilter songFilter = new SongFilter("", "", null);
+        mockMvc.perform(post(API_PATH + "/_list")
+            .param("cursor", "not-a-cursor")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(songFilter)))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Malformed cursor."));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_search - Artist rename is searchable and results are paginated by cursor")
+    void searchSongs_Success_afterArtistRename() throws Exception {
+
+        mockMvc.perform(put("/api/artist/{id}", createdArtistId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new SaveArtistDto("Renamed Performer"))))
+            .andExpect(status().isOk());
+
+        SongSearchDto search = new SongSearchDto("performer");
+        MvcResult firstPage = mockMvc.perform(post(API_PATH + "/_search")
+            .param("size", "1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(search)))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].artistInfo.name").value("Renamed Performer"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andReturn();
+
+        String nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(post(API_PATH + "/_search")
+            .param("size", "1")
+            .param("cursor", nextCursor)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(search)))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_search - Title match ranks above genre match")
+    void searchSongs_Success_titleRankedFirst() throws Exception {
+
+        mockMvc.perform(post(API_PATH + "/_search")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new SongSearchDto("\"Song Title 3\""))))
+
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title").value("Song Title 3"));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_search - Failure: Blank query (400)")
+    void searchSongs_Failed_blankQuery() throws Exception {
+
+        mockMvc.perform(post(API_PATH + "/_search")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new SongSearchDto(" "))))
+
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("query: must not be blank"));
+    }
+
     @Test
     @DisplayName("POST /api/song/_report - Successful CSV report generation") 
     void generateReport_Success() throws Exception {
@@ -383,6 +895,144 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
         Assertions.assertTrue(lines[1].contains("Song Title 2"), "The first record should contain the expected title.");
     }
 
+    @Test
+    @DisplayName("POST /api/song/_report?engine=COPY - Report rendered by the database matches the default engine")
+    void generateReport_CopyEngine_MatchesDefault() throws Exception {
+
+        SongFilter filter = new SongFilter(null, null, 2015);
+
+        String expected = mockMvc.perform(post(API_PATH + "/_report")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(filter)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult result = mockMvc.perform(post(API_PATH + "/_report")
+                .param("engine", "COPY")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(filter)))
+
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv; charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", containsString("filename=\"songs.csv\"")))
+                .andReturn();
+
+        String csvContent = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(expected.trim(), csvContent.trim(), "Both engines should produce the same report.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_report?engine=COPY - Filter values are passed to COPY as escaped literals")
+    void generateReport_CopyEngine_EscapesFilterValues() throws Exception {
+
+        SongFilter filter = new SongFilter("O'Brien\\'; DROP TABLE songs; --", null, null);
+
+        MvcResult result = mockMvc.perform(post(API_PATH + "/_report")
+                .param("engine", "COPY")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(filter)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+
+        Assertions.assertEquals(1, lines.length, "Only the header is expected for a non-matching filter.");
+        Assertions.assertTrue(songRepository.count() > 0, "Songs table must be intact.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/_report/jobs - Job completes, is reused for the same filter and can be downloaded")
+    void submitReportJob_CompletesAndDownloads() throws Exception {
+
+        SongFilter filter = new SongFilter(null, null, 2015);
+
+        String jobId = submitReportJob(filter, false);
+        awaitReportJob(jobId);
+
+        Assertions.assertEquals(jobId, submitReportJob(new SongFilter("", null, 2015), false),
+            "An identical filter within the TTL should reuse the existing job.");
+        Assertions.assertNotEquals(jobId, submitReportJob(filter, false, ReportEngine.COPY),
+            "The same filter with another engine should get a job of its own.");
+
+        MvcResult result = mockMvc.perform(get(API_PATH + "/_report/jobs/" + jobId + "/file"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Disposition", containsString("filename=\"songs.csv\"")))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).trim().split("\n");
+
+        Assertions.assertEquals(2, lines.length, "The report should contain the header and 1 record.");
+        Assertions.assertTrue(lines[1].contains("Song Title 2"), "The record should contain the expected title.");
+    }
+
+    @Test
+    @DisplayName("GET /api/song/_report/jobs/{id}/file - Gzip artifact supports Range requests")
+    void downloadReport_Gzip_SupportsRange() throws Exception {
+
+        String jobId = submitReportJob(new SongFilter(null, null, null), true);
+        awaitReportJob(jobId);
+
+        byte[] full = mockMvc.perform(get(API_PATH + "/_report/jobs/" + jobId + "/file"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(full))) {
+            String csvContent = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            Assertions.assertEquals(4, csvContent.trim().split("\n").length, "The report should contain the header and 3 records.");
+        }
+
+        byte[] tail = mockMvc.perform(get(API_PATH + "/_report/jobs/" + jobId + "/file")
+                .header("Range", "bytes=10-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-" + (full.length - 1) + "/" + full.length))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Assertions.assertArrayEquals(Arrays.copyOfRange(full, 10, full.length), tail);
+    }
+
+    @Test
+    @DisplayName("GET /api/song/_report/jobs/{id} - Not found for an unknown job")
+    void getReportJob_NotFound() throws Exception {
+
+        mockMvc.perform(get(API_PATH + "/_report/jobs/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private String submitReportJob(SongFilter filter, boolean gzip) throws Exception {
+        return submitReportJob(filter, gzip, ReportEngine.HIBERNATE);
+    }
+
+    private String submitReportJob(SongFilter filter, boolean gzip, ReportEngine engine) throws Exception {
+        MvcResult result = mockMvc.perform(post(API_PATH + "/_report/jobs")
+                .param("gzip", String.valueOf(gzip))
+                .param("engine", engine.name())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(filter)))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    private void awaitReportJob(String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = mockMvc.perform(get(API_PATH + "/_report/jobs/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String status = objectMapper.readTree(body).get("status").asText();
+            if ("COMPLETED".equals(status)) {
+                return;
+            }
+            Assertions.assertNotEquals("FAILED", status, body);
+            Thread.sleep(100);
+        }
+        Assertions.fail("Report job " + jobId + " did not complete in time.");
+    }
+
     @Test
     @DisplayName("POST /api/song/upload - Partial import success (1/1)")
     void uploadFromFile_PartialSuccess_ReturnsStats() throws Exception {
@@ -420,6 +1070,586 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
 
     }
 
+    @Test
+    @DisplayName("POST /api/song/upload - Batched import isolates a record rejected by the database")
+    void uploadFromFile_Batched_IsolatesRejectedRecord() throws Exception {
+
+        StringBuilder jsonContent = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            String title = i == 3 ? "x".repeat(150) : "Batched Song " + i;
+            jsonContent.append(i > 0 ? "," : "").append("{")
+                .append("\"title\":\"").append(title).append("\",")
+                .append("\"artistId\":\"").append(createdArtistId).append("\",")
+                .append("\"releaseYear\":2023,")
+                .append("\"duration\":300,")
+                .append("\"albumId\":\"").append(createdAlbumId).append("\",")
+                .append("\"genresId\":[\"").append(createdGenreId).append("\"]")
+                .append("}");
+        }
+        jsonContent.append(",\"not a song\"]");
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.toString().getBytes(StandardCharsets.UTF_8)
+        );
+
+        mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile)
+                .param("mode", "BATCHED")
+                .param("chunkSize", "4"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(4))
+            .andExpect(jsonPath("$.failedRecords").value(2));
+
+        Assertions.assertEquals(7, songRepository.count(), "The 3 existing songs plus 4 imported ones are expected.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - Batched import reports records with missing album or genre")
+    void uploadFromFile_Batched_MissingReferences_CountedAsFailures() throws Exception {
+
+        final UUID nonExistentAlbumId = UUID.randomUUID();
+        final UUID nonExistentGenreId = UUID.randomUUID();
+
+        String jsonContent = "["
+            + songJson("Resolved Song", createdAlbumId, createdGenreId) + ","
+            + songJson("Missing Album", nonExistentAlbumId, createdGenreId) + ","
+            + songJson("Missing Genre", createdAlbumId, nonExistentGenreId) + ","
+            + songJson("Missing Album Again", nonExistentAlbumId, createdGenreId)
+            + "]";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult result = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile)
+                .param("chunkSize", "2"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(1))
+            .andExpect(jsonPath("$.failedRecords").value(3))
+            .andReturn();
+
+        Assertions.assertEquals(4, songRepository.count(), "Only the record with resolvable references is imported.");
+
+        String rejectionsId = objectMapper.readTree(result.getResponse().getContentAsString()).get("rejectedRowsFileId").asText();
+        String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + rejectionsId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(rejections.contains("1,MISSING_ALBUM," + nonExistentAlbumId), rejections);
+        Assertions.assertTrue(rejections.contains("2,MISSING_GENRE," + nonExistentGenreId), rejections);
+        Assertions.assertTrue(rejections.contains("3,MISSING_ALBUM," + nonExistentAlbumId), rejections);
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - A JSON file cut off inside a record reports the rest as truncated")
+    void uploadFromFile_TruncatedJson_ReportsTruncatedInput() throws Exception {
+
+        String jsonContent = "["
+            + songJson("Complete Song 1", createdAlbumId, createdGenreId) + ","
+            + songJson("Complete Song 2", createdAlbumId, createdGenreId) + ","
+            + "{\"title\":\"Cut Off\",\"artistId\":";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult result = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(2))
+            .andExpect(jsonPath("$.failedRecords").value(1))
+            .andReturn();
+
+        String rejectionsId = objectMapper.readTree(result.getResponse().getContentAsString()).get("rejectedRowsFileId").asText();
+        String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + rejectionsId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals("Record,Reason,Ids\n2,TRUNCATED_INPUT,\n", rejections);
+        Assertions.assertEquals(5, songRepository.count(), "The 3 existing songs plus 2 imported ones are expected.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - A null element of a JSON array is rejected on its own")
+    void uploadFromFile_NullJsonElement_RejectsOnlyIt() throws Exception {
+
+        String jsonContent = "["
+            + songJson("Before Null", createdAlbumId, createdGenreId) + ","
+            + "null,"
+            + songJson("After Null", createdAlbumId, createdGenreId)
+            + "]";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult result = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(2))
+            .andExpect(jsonPath("$.failedRecords").value(1))
+            .andReturn();
+
+        String rejectionsId = objectMapper.readTree(result.getResponse().getContentAsString()).get("rejectedRowsFileId").asText();
+        String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + rejectionsId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals("Record,Reason,Ids\n1,INVALID_RECORD,\n", rejections);
+        Assertions.assertEquals(5, songRepository.count(), "The 3 existing songs plus 2 imported ones are expected.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload?rejections=RESPONSE - Rejections are streamed as the response body")
+    void uploadFromFile_RejectionsInResponse_StreamsCsv() throws Exception {
+
+        final UUID nonExistentAlbumId = UUID.randomUUID();
+
+        String ndjsonContent = songJson("Streamed Song", createdAlbumId, createdGenreId) + "\n"
+            + "not json\n"
+            + songJson("Missing Album", nonExistentAlbumId, createdGenreId) + "\n";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.ndjson",
+            "application/x-ndjson",
+            ndjsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        String rejections = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile)
+                .param("mode", "PIPELINED")
+                .param("rejections", "RESPONSE"))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Content-Type", containsString("text/csv")))
+            .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals(
+            "Record,Reason,Ids\n1,INVALID_RECORD,\n2,MISSING_ALBUM," + nonExistentAlbumId + "\n", rejections);
+        Assertions.assertEquals(4, songRepository.count(), "The 3 existing songs plus 1 imported one are expected.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload?mode=PIPELINED - Pipelined import drops invalid records before writing")
+    void uploadFromFile_Pipelined_DropsInvalidRecords() throws Exception {
+
+        StringBuilder jsonContent = new StringBuilder("[");
+        for (int i = 0; i < 7; i++) {
+            String title = i == 3 ? "x".repeat(150) : "Pipelined Song " + i;
+            UUID albumId = i == 5 ? UUID.randomUUID() : createdAlbumId;
+            jsonContent.append(i > 0 ? "," : "").append("{")
+                .append("\"title\":\"").append(title).append("\",")
+                .append("\"artistId\":\"").append(createdArtistId).append("\",")
+                .append("\"releaseYear\":2023,")
+                .append("\"duration\":300,")
+                .append("\"albumId\":\"").append(albumId).append("\",")
+                .append("\"genresId\":[\"").append(createdGenreId).append("\"]")
+                .append("}");
+        }
+        jsonContent.append(",\"not a song\"]");
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.toString().getBytes(StandardCharsets.UTF_8)
+        );
+
+        mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile)
+                .param("mode", "PIPELINED")
+                .param("chunkSize", "2"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(5))
+            .andExpect(jsonPath("$.failedRecords").value(3));
+
+        Assertions.assertEquals(8, songRepository.count(), "The 3 existing songs plus 5 imported ones are expected.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload?mode=COPY - Bulk load merges valid records and writes a rejected-rows file")
+    void uploadFromFile_Copy_MergesValidRecordsAndReportsRejections() throws Exception {
+
+        final UUID nonExistentGenreId = UUID.randomUUID();
+
+        String jsonContent = "["
+            + songJson("Copied \\\"Song\\\", 1", createdAlbumId, createdGenreId) + ","
+            + songJson("x".repeat(150), createdAlbumId, createdGenreId) + ","
+            + "\"not a song\","
+            + songJson("Copied Song 2", createdAlbumId, nonExistentGenreId)
+            + "]";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult result = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile)
+                .param("mode", "COPY"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(1))
+            .andExpect(jsonPath("$.failedRecords").value(3))
+            .andExpect(jsonPath("$.rejectedRowsFileId").exists())
+            .andReturn();
+
+        Assertions.assertEquals(4, songRepository.count(), "Only the valid record is merged.");
+        Assertions.assertTrue(songRepository.findAll().stream().anyMatch(song -> song.getTitle().equals("Copied \"Song\", 1")));
+
+        String rejectionsId = objectMapper.readTree(result.getResponse().getContentAsString()).get("rejectedRowsFileId").asText();
+        String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + rejectionsId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(rejections.contains("1,INVALID_TITLE,"), rejections);
+        Assertions.assertTrue(rejections.contains("2,INVALID_RECORD,"), rejections);
+        Assertions.assertTrue(rejections.contains("3,MISSING_GENRE," + nonExistentGenreId), rejections);
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload?mode=COPY - Records breaking the song constraints are rejected like in the other modes")
+    void uploadFromFile_Copy_RejectsConstraintViolations() throws Exception {
+
+        String valid = songJson("Copied Valid Song", createdAlbumId, createdGenreId);
+        String jsonContent = "["
+            + valid + ","
+            + songJson("   ", createdAlbumId, createdGenreId) + ","
+            + valid.replace("\"releaseYear\":2023", "\"releaseYear\":1800").replace("Valid", "Old") + ","
+            + valid.replace("\"releaseYear\":2023", "\"releaseYear\":" + (Year.now().getValue() + 1)).replace("Valid", "Future") + ","
+            + valid.replace("\"duration\":300", "\"duration\":0").replace("Valid", "Silent") + ","
+            + valid.replace("[\"" + createdGenreId + "\"]", "[]").replace("Valid", "Genreless")
+            + "]";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult result = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile)
+                .param("mode", "COPY"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(1))
+            .andExpect(jsonPath("$.failedRecords").value(5))
+            .andReturn();
+
+        Assertions.assertEquals(4, songRepository.count(), "Only the valid record is merged.");
+
+        String rejectionsId = objectMapper.readTree(result.getResponse().getContentAsString()).get("rejectedRowsFileId").asText();
+        String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + rejectionsId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(rejections.contains("1,INVALID_TITLE,"), rejections);
+        Assertions.assertTrue(rejections.contains("2,INVALID_RELEASE_YEAR,"), rejections);
+        Assertions.assertTrue(rejections.contains("3,INVALID_RELEASE_YEAR,"), rejections);
+        Assertions.assertTrue(rejections.contains("4,INVALID_DURATION,"), rejections);
+        Assertions.assertTrue(rejections.contains("5,INVALID_GENRES_ID,"), rejections);
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload/jobs - Background upload completes and reports its counts")
+    void submitUploadJob_CompletesWithCounts() throws Exception {
+
+        String jsonContent = "["
+            + songJson("Background Song 1", createdAlbumId, createdGenreId) + ","
+            + songJson("Background Song 2", UUID.randomUUID(), createdGenreId)
+            + "]";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult submitted = mockMvc.perform(multipart(API_PATH + "/upload/jobs").file(mockFile))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").exists())
+            .andReturn();
+        String jobId = objectMapper.readTree(submitted.getResponse().getContentAsString()).get("id").asText();
+
+        String status = null;
+        for (int attempt = 0; attempt < 100 && !"COMPLETED".equals(status); attempt++) {
+            Thread.sleep(100);
+            String body = mockMvc.perform(get(API_PATH + "/upload/jobs/" + jobId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(body).get("status").asText();
+        }
+        Assertions.assertEquals("COMPLETED", status, "The upload job should complete.");
+
+        mockMvc.perform(post(API_PATH + "/upload/jobs/" + jobId + "/_cancel"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.processedRecords").value(2))
+            .andExpect(jsonPath("$.successfulRecords").value(1))
+            .andExpect(jsonPath("$.failedRecords").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload/jobs - Failure: Invalid file format (400)")
+    void submitUploadJob_InvalidFormat_Returns400() throws Exception {
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file", "songs.xml", "text/xml", "content".getBytes()
+        );
+
+        mockMvc.perform(multipart(API_PATH + "/upload/jobs").file(mockFile))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload/jobs/{id}/_resume - Failure: Completed job cannot be resumed (409)")
+    void resumeUploadJob_Completed_Returns409() throws Exception {
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            ("[" + songJson("Resumed Song", createdAlbumId, createdGenreId) + "]").getBytes(StandardCharsets.UTF_8)
+        );
+
+        MvcResult submitted = mockMvc.perform(multipart(API_PATH + "/upload/jobs").file(mockFile))
+            .andExpect(status().isAccepted())
+            .andReturn();
+        String jobId = objectMapper.readTree(submitted.getResponse().getContentAsString()).get("id").asText();
+
+        String status = null;
+        for (int attempt = 0; attempt < 100 && !"COMPLETED".equals(status); attempt++) {
+            Thread.sleep(100);
+            String body = mockMvc.perform(get(API_PATH + "/upload/jobs/" + jobId))
+                .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(body).get("status").asText();
+        }
+        Assertions.assertEquals("COMPLETED", status, "The upload job should complete.");
+
+        mockMvc.perform(post(API_PATH + "/upload/jobs/" + jobId + "/_resume"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload/jobs/{id}/_resume - A failed multi-chunk upload resumes from its checkpoint")
+    void resumeUploadJob_Failed_ContinuesFromCheckpoint() throws Exception {
+
+        final UUID nonExistentAlbumId = UUID.randomUUID();
+
+        String jsonContent = "["
+            + songJson("Resume Song 0", createdAlbumId, createdGenreId) + ","
+            + songJson("Resume Song 1", nonExistentAlbumId, createdGenreId) + ","
+            + songJson("Resume Song 2", createdAlbumId, createdGenreId) + ","
+            + songJson("Resume Song 3", createdAlbumId, createdGenreId) + ","
+            + songJson("Resume Song 4", createdAlbumId, createdGenreId).replace("\"duration\":300", "\"duration\":0") + ","
+            + songJson("Poison Song", createdAlbumId, createdGenreId) + ","
+            + songJson("Resume Song 6", createdAlbumId, createdGenreId)
+            + "]";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.json",
+            "application/json",
+            jsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        // the third chunk, records 5 and 6, fails in the database after two chunks were committed
+        jdbcTemplate.execute("CREATE FUNCTION fail_poison_song() RETURNS TRIGGER LANGUAGE plpgsql AS "
+            + "$$ BEGIN RAISE EXCEPTION 'poisoned'; END $$");
+        jdbcTemplate.execute("CREATE TRIGGER poison_song BEFORE INSERT ON songs FOR EACH ROW "
+            + "WHEN (NEW.title = 'Poison Song') EXECUTE FUNCTION fail_poison_song()");
+        String jobId;
+        try {
+            MvcResult submitted = mockMvc.perform(multipart(API_PATH + "/upload/jobs").file(mockFile)
+                    .param("mode", "BATCHED")
+                    .param("chunkSize", "2"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+            jobId = objectMapper.readTree(submitted.getResponse().getContentAsString()).get("id").asText();
+
+            JsonNode failed = awaitUploadJob(jobId, "FAILED");
+            Assertions.assertEquals(4, failed.get("checkpointRecords").asLong(), failed.toString());
+            Assertions.assertEquals(7, failed.get("processedRecords").asLong(), failed.toString());
+            Assertions.assertEquals(3, failed.get("successfulRecords").asLong(), failed.toString());
+            Assertions.assertEquals(2, failed.get("failedRecords").asLong(), failed.toString());
+            Assertions.assertTrue(failed.hasNonNull("rejectedRowsFileId"), "A failed job keeps its rejected-rows file.");
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER poison_song ON songs");
+            jdbcTemplate.execute("DROP FUNCTION fail_poison_song()");
+        }
+
+        // a resumed run that read record 0 again would restore its title
+        jdbcTemplate.update("UPDATE songs SET title = 'Edited Song 0' WHERE title = 'Resume Song 0'");
+
+        mockMvc.perform(post(API_PATH + "/upload/jobs/" + jobId + "/_resume"))
+            .andExpect(status().isAccepted());
+
+        JsonNode completed = awaitUploadJob(jobId, "COMPLETED");
+        Assertions.assertEquals(7, completed.get("checkpointRecords").asLong(), completed.toString());
+        Assertions.assertEquals(7, completed.get("processedRecords").asLong(), completed.toString());
+        Assertions.assertEquals(5, completed.get("successfulRecords").asLong(), completed.toString());
+        Assertions.assertEquals(2, completed.get("failedRecords").asLong(), completed.toString());
+
+        List<String> titles = songRepository.findAll().stream().map(Song::getTitle).sorted().toList();
+        Assertions.assertEquals(List.of("Edited Song 0", "Poison Song", "Resume Song 2", "Resume Song 3", "Resume Song 6",
+            "Song Title 1", "Song Title 2", "Song Title 3"), titles, "Records before the checkpoint are not read again.");
+
+        String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + completed.get("rejectedRowsFileId").asText()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        Assertions.assertEquals(
+            "Record,Reason,Ids\n1,MISSING_ALBUM," + nonExistentAlbumId + "\n4,INVALID_DURATION,\n", rejections);
+    }
+
+    private JsonNode awaitUploadJob(String jobId, String expectedStatus) throws Exception {
+        JsonNode job = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Thread.sleep(100);
+            String body = mockMvc.perform(get(API_PATH + "/upload/jobs/" + jobId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            job = objectMapper.readTree(body);
+            if (expectedStatus.equals(job.get("status").asText())) {
+                return job;
+            }
+        }
+        Assertions.fail("The upload job should end as " + expectedStatus + ", it is: " + job);
+        return job;
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - Uploading the same file again updates the songs instead of duplicating them")
+    void uploadFromFile_SameFileTwice_NoDuplicates() throws Exception {
+
+        String jsonContent = "["
+            + songJson("Repeated Song 1", createdAlbumId, createdGenreId) + ","
+            + songJson("Repeated Song 2", createdAlbumId, createdGenreId)
+            + "]";
+
+        for (String mode : List.of("BATCHED", "BATCHED", "PIPELINED", "COPY")) {
+            MockMultipartFile mockFile = new MockMultipartFile(
+                "file",
+                "songs.json",
+                "application/json",
+                jsonContent.getBytes(StandardCharsets.UTF_8)
+            );
+
+            mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile).param("mode", mode))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.successfulRecords").value(2))
+                .andExpect(jsonPath("$.failedRecords").value(0));
+
+            Assertions.assertEquals(5, songRepository.count(),
+                "The 3 existing songs plus the 2 uploaded ones are expected after a " + mode + " upload.");
+        }
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - Of two records with one key in a file, the earlier one is rejected as overwritten")
+    void uploadFromFile_SameRecordTwiceInFile_CountsOneSuccess() throws Exception {
+
+        String repeated = songJson("Doubled Song", createdAlbumId, createdGenreId);
+        String jsonContent = "[" + repeated + "," + repeated + "]";
+
+        for (String mode : List.of("BATCHED", "PIPELINED", "COPY")) {
+            MockMultipartFile mockFile = new MockMultipartFile(
+                "file",
+                "songs.json",
+                "application/json",
+                jsonContent.getBytes(StandardCharsets.UTF_8)
+            );
+
+            MvcResult result = mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile).param("mode", mode))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.successfulRecords").value(1))
+                .andExpect(jsonPath("$.failedRecords").value(1))
+                .andReturn();
+
+            String rejectionsId = objectMapper.readTree(result.getResponse().getContentAsString()).get("rejectedRowsFileId").asText();
+            String rejections = mockMvc.perform(get(API_PATH + "/upload/rejects/" + rejectionsId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            Assertions.assertTrue(rejections.contains("0,DUPLICATE_IMPORT_KEY,1"),
+                "The first record should be rejected in favour of the second after a " + mode + " upload: " + rejections);
+            Assertions.assertEquals(4, songRepository.count(),
+                "The 3 existing songs plus 1 uploaded one are expected after a " + mode + " upload.");
+        }
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - NDJSON import rejects a broken line without affecting the next ones")
+    void uploadFromFile_Ndjson_IsolatesBrokenLine() throws Exception {
+
+        String ndjsonContent = songJson("Line Song 1", createdAlbumId, createdGenreId) + "\n"
+            + "{\"title\": broken\n"
+            + "\n"
+            + songJson("Line Song 2", createdAlbumId, createdGenreId) + "\n";
+
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.ndjson",
+            "application/x-ndjson",
+            ndjsonContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(2))
+            .andExpect(jsonPath("$.failedRecords").value(1));
+
+        Assertions.assertEquals(5, songRepository.count(), "The 3 existing songs plus 2 imported ones are expected.");
+    }
+
+    @Test
+    @DisplayName("POST /api/song/upload - Gzipped CSV in the report layout is resolved by names")
+    void uploadFromFile_GzippedReportCsv_ResolvesNames() throws Exception {
+
+        String csvContent = "ID,Title,ArtistName,Album,ReleasedYear,Duration,Genres\r\n"
+            + ",\"Csv Song, \"\"quoted\"\"\",Test Song 1,Album 1,2021,200,\"Genre 1, Genre 2\"\r\n"
+            + ",Unknown Artist Song,Nobody,Album 1,2021,200,Genre 1\r\n"
+            + ",Bad Year Song,Test Song 1,Album 1,soon,200,Genre 1\r\n";
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(csvContent.getBytes(StandardCharsets.UTF_8));
+        }
+        MockMultipartFile mockFile = new MockMultipartFile(
+            "file",
+            "songs.csv.gz",
+            "application/gzip",
+            compressed.toByteArray()
+        );
+
+        mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.successfulRecords").value(1))
+            .andExpect(jsonPath("$.failedRecords").value(2));
+
+        Song imported = songRepository.findAll().stream()
+            .filter(song -> song.getTitle().equals("Csv Song, \"quoted\""))
+            .findFirst()
+            .orElseThrow();
+        Assertions.assertEquals(createdAlbumId, imported.getAlbum().getId());
+    }
+
+    private String songJson(String title, UUID albumId, UUID genreId) {
+        return "{"
+            + "\"title\":\"" + title + "\","
+            + "\"artistId\":\"" + createdArtistId + "\","
+            + "\"releaseYear\":2023,"
+            + "\"duration\":300,"
+            + "\"albumId\":\"" + albumId + "\","
+            + "\"genresId\":[\"" + genreId + "\"]"
+            + "}";
+    }
+
     @Test
     @DisplayName("POST /api/song/upload - Failure: Invalid file format (400)")
     void uploadFromFile_InvalidFormat_Returns400() throws Exception {
@@ -430,7 +1660,7 @@ public class SongControllerIntegrationTest extends AbstractIntegrationTest{
 
         mockMvc.perform(multipart(API_PATH + "/upload").file(mockFile))
             .andExpect(status().isBadRequest())
-            .andExpect(jsonPath("$.message").value("Only JSON format is supported."));
+            .andExpect(jsonPath("$.message").value("Only JSON, NDJSON and CSV files (optionally gzip-compressed) are supported."));
 
     }
 
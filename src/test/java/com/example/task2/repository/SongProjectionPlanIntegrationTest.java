@@ -0,0 +1,147 @@
+package com.example.task2.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.example.task2.benchmark.AbstractBenchmarkTest;
+import com.example.task2.dto.SongFilter;
+
+/**
+ * Plan regression for the name filters: on a 1M-song catalog the filtered listing must be driven by the
+ * trigram indexes, both for a freshly planned statement and for a cached generic plan. On a much smaller catalog
+ * the planner rightly scans the reference tables instead, so the class needs the full catalog and is excluded from
+ * the default build like the benchmarks; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SongProjectionPlanIntegrationTest extends AbstractBenchmarkTest {
+
+    // md5('42') and md5('7') prefixes: each matches exactly one generated artist / album
+    private static final String ARTIST_FRAGMENT = "A1D0C6E8";
+    private static final String ALBUM_FRAGMENT = "8f14e45f";
+
+    private static boolean catalogGenerated;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setupCatalog() {
+        dataSource = dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        if (catalogGenerated) {
+            return;
+        }
+        jdbcTemplate.execute("INSERT INTO artists(id, name) "
+            + "SELECT gen_random_uuid(), 'Artist ' || md5(i::text) FROM generate_series(1, 50000) i");
+        jdbcTemplate.execute("INSERT INTO albums(id, name, artist_id) "
+            + "SELECT gen_random_uuid(), 'Album ' || md5(i::text), a.id FROM generate_series(1, 150000) i "
+            + "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM artists) a ON a.n = i % 50000");
+        jdbcTemplate.execute("INSERT INTO songs(id, title, release_year, duration, artist_id, album_id) "
+            + "SELECT gen_random_uuid(), 'Song ' || i, 1950 + i % 75, 60 + i % 400, al.artist_id, al.id "
+            + "FROM generate_series(1, 1000000) i "
+            + "JOIN (SELECT id, artist_id, row_number() OVER (ORDER BY id) - 1 AS n FROM albums) al ON al.n = i % 150000");
+        jdbcTemplate.execute("ANALYZE");
+        catalogGenerated = true;
+    }
+
+    @AfterEach
+    void closeConnection() {
+        dataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("Artist filter uses the trigram index instead of scanning songs")
+    void listByArtist_UsesTrigramIndex() {
+        String plan = explainGeneric(new SongFilter(null, ARTIST_FRAGMENT, null), Sort.by("title"));
+
+        assertUsesIndexes(plan, "idx_artists_name_trgm", "idx_songs_artist_id");
+    }
+
+    @Test
+    @DisplayName("Album and artist filters combined use both trigram indexes")
+    void listByAlbumAndArtist_UsesTrigramIndexes() {
+        String plan = explainGeneric(new SongFilter(ALBUM_FRAGMENT, ARTIST_FRAGMENT, 1990), Sort.unsorted());
+
+        assertUsesIndexes(plan, "idx_albums_name_trgm", "idx_artists_name_trgm");
+    }
+
+    @Test
+    @DisplayName("Count query for a filtered page uses the trigram index")
+    void countByAlbum_UsesTrigramIndex() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = SongProjectionRepositoryImpl.countSql(new SongFilter(ALBUM_FRAGMENT, null, null), params);
+
+        assertUsesIndexes(explain(sql, params), "idx_albums_name_trgm", "idx_songs_album_id");
+    }
+
+    private void assertUsesIndexes(String plan, String... indexes) {
+        for (String index : indexes) {
+            Assertions.assertTrue(plan.contains(index), "Expected " + index + " in plan:\n" + plan);
+        }
+        Assertions.assertFalse(plan.contains("Seq Scan on songs"), "Unexpected sequential scan:\n" + plan);
+        Assertions.assertFalse(plan.contains("using songs_pkey"), "Unexpected primary key walk:\n" + plan);
+    }
+
+    private String explain(String sql, MapSqlParameterSource params) {
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        String jdbcSql = NamedParameterUtils.substituteNamedParameters(parsedSql, params);
+        Object[] values = NamedParameterUtils.buildValueArray(parsedSql, params, null);
+
+        return joinPlan(jdbcTemplate.queryForList("EXPLAIN " + jdbcSql, String.class, values));
+    }
+
+    /**
+     * Prepares the listing statement server-side and explains it with a forced generic plan,
+     * which is what the driver ends up executing once a statement is reused.
+     */
+    private String explainGeneric(SongFilter songFilter, Sort sort) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = SongProjectionRepositoryImpl.selectSql(songFilter, PageRequest.of(0, 20, sort), params);
+
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        String jdbcSql = NamedParameterUtils.substituteNamedParameters(parsedSql, params);
+        Object[] values = NamedParameterUtils.buildValueArray(parsedSql, params, null);
+
+        StringBuilder positional = new StringBuilder();
+        int index = 0;
+        for (char c : jdbcSql.toCharArray()) {
+            if (c == '?') {
+                positional.append('$').append(++index);
+            } else {
+                positional.append(c);
+            }
+        }
+        String arguments = Arrays.stream(values)
+            .map(value -> value instanceof String ? "'" + ((String) value).replace("'", "''") + "'" : String.valueOf(value))
+            .collect(Collectors.joining(", "));
+
+        jdbcTemplate.execute("DEALLOCATE ALL");
+        jdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+        try {
+            jdbcTemplate.execute("PREPARE song_list AS " + positional);
+            return joinPlan(jdbcTemplate.queryForList("EXPLAIN EXECUTE song_list(" + arguments + ")", String.class));
+        } finally {
+            jdbcTemplate.execute("RESET plan_cache_mode");
+        }
+    }
+
+    private String joinPlan(List<String> lines) {
+        return String.join("\n", lines);
+    }
+}